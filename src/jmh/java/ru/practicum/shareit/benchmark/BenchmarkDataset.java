@@ -0,0 +1,186 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Приложение (без веб-сервера) поверх файловой H2 с заранее засеянными данными.
+ * <p>
+ * База на каждый размер создается один раз в target/jmh-data и переиспользуется следующими запусками,
+ * чтобы форки JMH не тратили время на заполнение миллиона бронирований. В имени файла — контрольная сумма
+ * schema.sql: после изменения схемы база засевается заново.
+ * Раскладка данных:
+ * <ul>
+ *     <li>пользователь {@link #OWNER_ID} владеет всеми {@link #ITEMS} вещами;</li>
+ *     <li>{@link #BOOKERS} арендаторов, среди них {@link #HEAVY_BOOKER_ID}, бронирования распределены
+ *     между ними поровну — история каждого растет вместе с общим числом бронирований;</li>
+ *     <li>бронирования одной вещи идут друг за другом без пересечений, половина в прошлом, половина в будущем
+ *     и одно текущее, если бронирований на вещь больше одного; статусы — 80% APPROVED, 10% WAITING, 10% REJECTED;</li>
+ *     <li>по {@link #COMMENTS_PER_ITEM} комментария к каждой вещи.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+    public static final long OWNER_ID = 1;
+    public static final long HEAVY_BOOKER_ID = 2;
+    public static final int ITEMS = 2_000;
+    public static final int BOOKERS = 1_000;
+    public static final int COMMENTS_PER_ITEM = 2;
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String INSERT_BOOKING = "INSERT INTO bookings " +
+            "(id, start_date, end_date, item_id, booker_id, status, owner_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String[] NAMES = {"Дрель", "Отвертка", "Пила", "Стремянка", "Палатка", "Велосипед",
+            "Проектор", "Лодка"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start(bookings, WebApplicationType.NONE);
+    }
+
+    /**
+     * Засевает (если нужно) базу заданного размера и поднимает на ней приложение.
+     * extraArgs дополняют и перекрывают настройки по умолчанию.
+     */
+    static ConfigurableApplicationContext start(int bookings, WebApplicationType webApplicationType,
+                                                String... extraArgs) {
+        Path database = Path.of("target", "jmh-data", "shareit-" + bookings + "-" + schemaChecksum())
+                            .toAbsolutePath();
+        String url = "jdbc:h2:file:" + database;
+        if (!Files.exists(Path.of(database + ".mv.db"))) {
+            seed(new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")), bookings);
+        }
+
+        // аргументы командной строки, а не properties(): иначе их перекроет application-test.properties
+        List<String> args = new ArrayList<>(List.of("--spring.datasource.url=" + url,
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int bookings) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .execute(jdbcTemplate.getDataSource());
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = OWNER_ID; id <= BOOKERS + 1; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+        }
+        insert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            String name = NAMES[(int) (id % NAMES.length)];
+            items.add(new Object[]{id, name + " " + id, name + " в хорошем состоянии, инвентарный номер " + id,
+                    true, OWNER_ID});
+        }
+        insert(jdbcTemplate, "INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (?, ?, ?, ?, ?)", items);
+
+        // k-е бронирование вещи: [now - 12h + (k - (perItem + 1) / 2) * 2 дня, + 1 день)
+        LocalDateTime base = LocalDateTime.now().minusHours(12);
+        int perItem = Math.max(1, bookings / ITEMS);
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= bookings; id++) {
+            long itemId = 1 + (id - 1) % ITEMS;
+            long k = (id - 1) / ITEMS;
+            LocalDateTime start = base.plusDays(2 * (k - (perItem + 1) / 2));
+            // сдвиг на номер круга, чтобы статусы чередовались и внутри истории одного арендатора
+            long round = (id - 1) / BOOKERS;
+            String status = switch ((int) ((id - 1 + round) % 10)) {
+                case 8 -> "WAITING";
+                case 9 -> "REJECTED";
+                default -> "APPROVED";
+            };
+            batch.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), itemId,
+                    HEAVY_BOOKER_ID + (id - 1) % BOOKERS, status, OWNER_ID});
+            if (batch.size() == BATCH_SIZE) {
+                insert(jdbcTemplate, INSERT_BOOKING, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, INSERT_BOOKING, batch);
+
+        List<Object[]> comments = new ArrayList<>();
+        long commentId = 1;
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(new Object[]{commentId++, "Отличная вещь", itemId,
+                        HEAVY_BOOKER_ID + (itemId + i) % BOOKERS, Timestamp.valueOf(base)});
+            }
+        }
+        insert(jdbcTemplate, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                comments);
+
+        // id вставлены явно — сдвигаем последовательности, чтобы новые записи (addComment) их не повторяли
+        restartSequence(jdbcTemplate, "users_seq", BOOKERS + 2);
+        restartSequence(jdbcTemplate, "items_seq", ITEMS + 1);
+        restartSequence(jdbcTemplate, "bookings_seq", bookings + 1L);
+        restartSequence(jdbcTemplate, "comments_seq", commentId);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long next) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+    }
+
+    private static String schemaChecksum() {
+        try (InputStream in = new ClassPathResource("schema.sql").getInputStream()) {
+            CRC32 crc = new CRC32();
+            crc.update(in.readAllBytes());
+            return Long.toHexString(crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
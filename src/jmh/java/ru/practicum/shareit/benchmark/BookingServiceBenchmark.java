@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница списков бронирований арендатора и владельца по всем состояниям.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BookingServiceBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        bookingService = dataset.getBean(BookingService.class);
+    }
+
+    @Benchmark
+    public BookingPageDto bookingsByBooker() {
+        return bookingService.getBookingsByBooker(BenchmarkDataset.HEAVY_BOOKER_ID, state, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookingPageDto bookingsByOwner() {
+        return bookingService.getBookingsByOwner(BenchmarkDataset.OWNER_ID, state, null, PAGE_SIZE);
+    }
+}
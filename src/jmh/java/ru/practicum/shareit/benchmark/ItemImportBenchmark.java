@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.web.JsonValuesReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт вещей из NDJSON: разбор, проверка и запись пакетами JDBC, результат — вещей в секунду.
+ * Каждый вызов импортирует {@link #ITEMS_PER_IMPORT} вещей владельцу {@link BenchmarkDataset#OWNER_ID},
+ * так что база растет от итерации к итерации — как и при настоящей загрузке каталога.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ItemImportBenchmark -p bookings=1000 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemImportBenchmark {
+    private static final int ITEMS_PER_IMPORT = 5_000;
+
+    private ItemService itemService;
+    private ObjectMapper objectMapper;
+    private Validator validator;
+    private byte[] ndjson;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) throws IOException {
+        itemService = dataset.getBean(ItemService.class);
+        objectMapper = dataset.getBean(ObjectMapper.class);
+        validator = dataset.getBean(Validator.class);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ITEMS_PER_IMPORT; i++) {
+            body.append(objectMapper.writeValueAsString(new ItemDtoPost("Дрель " + i,
+                    "Дрель ударная, инвентарный номер " + i, true, null))).append('\n');
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS_PER_IMPORT)
+    public ItemImportResultDto importItems() throws IOException {
+        try (JsonValuesReader<ItemDtoPost> items = new JsonValuesReader<>(objectMapper, ItemDtoPost.class,
+                new ByteArrayInputStream(ndjson), validator)) {
+            return itemService.importItems(BenchmarkDataset.OWNER_ID, items);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentDtoPost;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список вещей владельца, поиск (в том числе свободных в окне вещей), календарь вещи и добавление отзыва.
+ * Время addComment не должно зависеть от размера истории бронирований арендатора (параметр bookings).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+    private static final CommentDtoPost COMMENT = new CommentDtoPost("Все понравилось");
+    private static final LocalDateTime WINDOW_START = LocalDateTime.now().plusHours(1);
+
+    private ItemService itemService;
+    private Long commentedItemId;
+    private Long busyItemId;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        itemService = dataset.getBean(ItemService.class);
+        // вещь, которую активный арендатор уже брал (подтвержденное завершенное бронирование)
+        commentedItemId = dataset.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT MIN(item_id) FROM bookings WHERE booker_id = ? AND status = 'APPROVED' " +
+                        "AND end_date < CURRENT_TIMESTAMP", Long.class, BenchmarkDataset.HEAVY_BOOKER_ID);
+        busyItemId = dataset.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT item_id FROM bookings WHERE status = 'APPROVED' GROUP BY item_id " +
+                        "ORDER BY COUNT(*) DESC, item_id LIMIT 1", Long.class);
+    }
+
+    @Benchmark
+    public List<ItemInfoDto> allItemsByOwner() {
+        return itemService.getAllItemsByOwner(BenchmarkDataset.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems("дрель", 0, 100);
+    }
+
+    // свободные в ближайшие сутки: найденные вещи проверяются по таймлайнам бронирований
+    @Benchmark
+    public List<ItemDto> searchFreeItems() {
+        return itemService.searchFreeItems("дрель", WINDOW_START, WINDOW_START.plusDays(1), 0, 100);
+    }
+
+    // год бронирований вещи: слоты строятся из таймлайна в памяти, без запросов к БД
+    @Benchmark
+    public ItemCalendarDto itemCalendar() {
+        return itemService.getItemCalendar(busyItemId, WINDOW_START.minusMonths(6), WINDOW_START.plusMonths(6));
+    }
+
+    @Benchmark
+    public CommentDto addComment() {
+        return itemService.addComment(commentedItemId, COMMENT, BenchmarkDataset.HEAVY_BOOKER_ID);
+    }
+}
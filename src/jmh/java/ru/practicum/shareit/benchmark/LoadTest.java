@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочное сравнение обработки запросов на платформенных и виртуальных потоках.
+ * <p>
+ * Для каждого режима поднимается приложение с Tomcat на случайном порту поверх той же базы,
+ * что и у JMH-бенчмарков, после чего clients клиентов в течение seconds секунд без пауз
+ * шлют вперемешку запросы списка бронирований, вещи и поиска.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=ru.practicum.shareit.benchmark.LoadTest -Djmh.args="1000 30 100000"
+ * </pre>
+ */
+public class LoadTest {
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final String[] QUERIES = {"дрель", "пила", "палатка", "лодка"};
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int bookings = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %10s %9s %9s %9s %8s", "threads", "clients", "req/s", "p50, ms",
+                "p99, ms", "max, ms", "errors"));
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = BenchmarkDataset.start(bookings,
+                    WebApplicationType.SERVLET, "--server.port=0", "--spring.threads.virtual.enabled=" + virtual)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                run(baseUrl, clients, WARMUP);
+                Result result = run(baseUrl, clients, Duration.ofSeconds(seconds));
+                report.add(String.format("%-9s %8d %10.0f %9.1f %9.1f %9.1f %8d", virtual ? "virtual" : "platform",
+                        clients, result.throughput(), result.percentile(0.5), result.percentile(0.99),
+                        result.percentile(1.0), result.errors()));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(String baseUrl, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder()
+                                               .version(HttpClient.Version.HTTP_1_1)
+                                               .executor(executor)
+                                               .build()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> client(httpClient, baseUrl, deadline, errors)));
+            }
+            long[] latencies = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] clientLatencies = future.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + clientLatencies.length);
+                System.arraycopy(clientLatencies, 0, latencies, offset, clientLatencies.length);
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, duration, errors.get());
+        }
+    }
+
+    private static long[] client(HttpClient httpClient, String baseUrl, long deadline, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long bookerId = BenchmarkDataset.HEAVY_BOOKER_ID + random.nextInt(BenchmarkDataset.BOOKERS);
+            String path = switch (random.nextInt(3)) {
+                case 0 -> "/bookings?state=ALL&size=20";
+                case 1 -> "/items/" + (1 + random.nextInt(BenchmarkDataset.ITEMS));
+                default -> "/items/search?size=20&text=" + QUERIES[random.nextInt(QUERIES.length)];
+            };
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                             .header("X-Sharer-User-Id", String.valueOf(bookerId))
+                                             .timeout(Duration.ofSeconds(30))
+                                             .build();
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - started;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private record Result(long[] sortedLatencies, Duration duration, long errors) {
+
+        double throughput() {
+            return sortedLatencies.length / (double) duration.toSeconds();
+        }
+
+        double percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
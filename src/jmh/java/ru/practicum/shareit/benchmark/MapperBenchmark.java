@@ -0,0 +1,108 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость преобразований MapStruct на одном объекте, без БД.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private UserMapper userMapper;
+
+    private User user;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+    private BookingDtoShort bookingShort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BookingMapperImpl.class, ItemMapperImpl.class,
+                UserMapperImpl.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "Арендатор", "booker@mail.ru");
+        item = new Item(2L, "Дрель", "Ударная дрель", true, new User(3L, "Владелец", "owner@mail.ru"), null);
+        booking = new Booking(4L, now, now.plusDays(1), item, user, BookingStatus.APPROVED);
+        comment = new Comment(5L, "Отличная дрель", item, user, now);
+        bookingShort = new BookingDtoShort(4L, now, now.plusDays(1), 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDtoShort bookingToShortDto() {
+        return bookingMapper.toBookingDtoShort(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemInfoDto itemToInfoDto() {
+        return itemMapper.toItemInfoDto(item, bookingShort, bookingShort);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return itemMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toUserDto(user);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.web.NdjsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статистика владельца за месяц: агрегат на сервере против прежнего пути клиента — выгрузить все бронирования
+ * NDJSON-потоком (сериализация в OutputStream.nullOutputStream()) и посчитать то же самое у себя.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OwnerStatsBenchmark -p bookings=500000"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class OwnerStatsBenchmark {
+    private BookingService bookingService;
+    private ObjectMapper objectMapper;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        bookingService = dataset.getBean(BookingService.class);
+        objectMapper = dataset.getBean(ObjectMapper.class);
+        to = LocalDateTime.now();
+        from = to.minusDays(30);
+    }
+
+    @Benchmark
+    public OwnerBookingStatsDto serverAggregate() {
+        return bookingService.getOwnerStats(BenchmarkDataset.OWNER_ID, from, to);
+    }
+
+    @Benchmark
+    public Map<BookingStatus, Long> downloadAndAggregate() throws IOException {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        long[] bookedSeconds = new long[1];
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, OutputStream.nullOutputStream())) {
+            bookingService.streamBookingsByOwner(BenchmarkDataset.OWNER_ID, "ALL", booking -> {
+                writer.accept(booking);
+                counts.merge(booking.getStatus(), 1L, Long::sum);
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    bookedSeconds[0] += overlapSeconds(booking);
+                }
+            });
+        }
+        return counts;
+    }
+
+    private long overlapSeconds(BookingDto booking) {
+        LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+        LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+        return start.isBefore(end) ? Duration.between(start, end).toSeconds() : 0;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Чтение списков сущностями с маппингом MapStruct против проекций в DTO.
+ * Разница в первую очередь в аллокациях — запускать с профайлером gc:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ReadModelBenchmark -prof gc"
+ * </pre>
+ * Сравнивать gc.alloc.rate.norm (байт на операцию).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ReadModelBenchmark {
+    // та же первая страница владельца (ALL), что у findDtoPage, но управляемыми сущностями;
+    // JOIN FETCH — маппер обращается к item, item.owner и booker, без него N+1 на каждую строку
+    private static final String OWNER_BOOKINGS = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner "
+            + "JOIN FETCH b.booker WHERE b.ownerId = :ownerId ORDER BY b.ownerId, b.start DESC, b.id DESC";
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private BookingRepository bookingRepository;
+    private BookingMapper bookingMapper;
+    private ItemRepository itemRepository;
+    private ItemMapper itemMapper;
+    private List<Long> itemIds;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        readOnly = new TransactionTemplate(dataset.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                dataset.getBean(EntityManagerFactory.class));
+        bookingRepository = dataset.getBean(BookingRepository.class);
+        bookingMapper = dataset.getBean(BookingMapper.class);
+        itemRepository = dataset.getBean(ItemRepository.class);
+        itemMapper = dataset.getBean(ItemMapper.class);
+        itemIds = LongStream.rangeClosed(1, pageSize)
+                            .boxed()
+                            .toList();
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerBookingsAsEntities() {
+        return readOnly.execute(status -> entityManager.createQuery(OWNER_BOOKINGS, Booking.class)
+                                                       .setParameter("ownerId", BenchmarkDataset.OWNER_ID)
+                                                       .setMaxResults(pageSize)
+                                                       .getResultList()
+                                                       .stream()
+                                                       .map(bookingMapper::toBookingDto)
+                                                       .toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerBookingsAsProjections() {
+        return readOnly.execute(status -> bookingRepository.findDtoPage(BookingRole.OWNER,
+                BenchmarkDataset.OWNER_ID, BookingStateParam.ALL, LocalDateTime.now(), BookingCursor.FIRST,
+                pageSize));
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsAsEntities() {
+        return readOnly.execute(status -> itemRepository.findAllById(itemIds)
+                                                        .stream()
+                                                        .map(itemMapper::toItemDto)
+                                                        .toList());
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsAsProjections() {
+        return readOnly.execute(status -> itemRepository.findDtosByIdIn(itemIds));
+    }
+}
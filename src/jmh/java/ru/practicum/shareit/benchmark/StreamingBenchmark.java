@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.web.NdjsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Все бронирования владельца одним ответом: список DTO + сериализация массива против NDJSON-потока.
+ * Ответ пишется в OutputStream.nullOutputStream(), измеряется чтение и сериализация.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StreamingBenchmark -p bookings=1000000 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StreamingBenchmark {
+    private BookingService bookingService;
+    private ObjectMapper objectMapper;
+    private int bookings;
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        bookingService = dataset.getBean(BookingService.class);
+        objectMapper = dataset.getBean(ObjectMapper.class);
+        bookings = dataset.bookings;
+    }
+
+    @Benchmark
+    public void ownerBookingsAsList() throws IOException {
+        BookingPageDto page = bookingService.getBookingsByOwner(BenchmarkDataset.OWNER_ID, "ALL", null, bookings);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), page.getBookings());
+    }
+
+    @Benchmark
+    public void ownerBookingsAsNdjson() throws IOException {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, OutputStream.nullOutputStream())) {
+            bookingService.streamBookingsByOwner(BenchmarkDataset.OWNER_ID, "ALL", writer);
+        }
+    }
+}
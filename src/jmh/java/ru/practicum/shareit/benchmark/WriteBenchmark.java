@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentDtoPost;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Запись под конкурентной нагрузкой: createBooking, addComment и createItem из {@value #THREADS} потоков.
+ * Бронирования раскиданы по всем вещам и идут после последнего бронирования в базе по часу без пересечений,
+ * комментарии оставляют арендаторы завершенных подтвержденных бронирований.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="WriteBenchmark -p bookings=100000"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(WriteBenchmark.THREADS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+    static final int THREADS = 16;
+
+    private BookingService bookingService;
+    private ItemService itemService;
+    private List<long[]> commenters;
+    private LocalDateTime firstSlot;
+    private final AtomicLong slots = new AtomicLong();
+
+    @Setup
+    public void setUp(BenchmarkDataset dataset) {
+        bookingService = dataset.getBean(BookingService.class);
+        itemService = dataset.getBean(ItemService.class);
+        JdbcTemplate jdbcTemplate = dataset.getBean(JdbcTemplate.class);
+        commenters = jdbcTemplate.query("SELECT item_id, booker_id FROM bookings " +
+                        "WHERE status = 'APPROVED' AND end_date < LOCALTIMESTAMP FETCH FIRST 1000 ROWS ONLY",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        // прошлые запуски тоже оставили бронирования — начинаем после самого позднего
+        Timestamp lastEnd = jdbcTemplate.queryForObject("SELECT MAX(end_date) FROM bookings", Timestamp.class);
+        firstSlot = (lastEnd != null ? lastEnd.toLocalDateTime() : LocalDateTime.now()).plusDays(1);
+    }
+
+    @Benchmark
+    public BookingDto createBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = firstSlot.plusHours(slots.getAndIncrement());
+        BookingDtoPost booking = new BookingDtoPost(1L + random.nextInt(BenchmarkDataset.ITEMS), start,
+                start.plusMinutes(30));
+        return bookingService.createBooking(booking,
+                BenchmarkDataset.HEAVY_BOOKER_ID + random.nextInt(BenchmarkDataset.BOOKERS));
+    }
+
+    @Benchmark
+    public CommentDto addComment() {
+        long[] commenter = commenters.get(ThreadLocalRandom.current().nextInt(commenters.size()));
+        return itemService.addComment(commenter[0], new CommentDtoPost("Отличная вещь"), commenter[1]);
+    }
+
+    @Benchmark
+    public ItemDto createItem() {
+        return itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null),
+                BenchmarkDataset.OWNER_ID);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Публикуется при создании бронирования и при смене его статуса; слушатели получают его после коммита.
+ */
+public record BookingChangedEvent(Long bookingId,
+                                  Long itemId,
+                                  Long ownerId,
+                                  Long bookerId,
+                                  LocalDateTime start,
+                                  LocalDateTime end,
+                                  BookingStatus status) {
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(booking.getId(),
+                booking.getItem().getId(),
+                booking.getOwnerId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus());
+    }
+}
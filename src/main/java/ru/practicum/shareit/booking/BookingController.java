@@ -1,8 +1,18 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,10 +23,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
+import ru.practicum.shareit.booking.notification.BookingNotifier;
 import ru.practicum.shareit.booking.validation.ValidBookingState;
+import ru.practicum.shareit.web.NdjsonWriter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -25,7 +44,16 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    // курсор следующей страницы отдается в заголовке, тело ответа остается массивом бронирований
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // без cursor и size список отдается целиком, как до пагинации; с cursor без size — страницами по 100
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_STATUS_BATCH_SIZE = 1000;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingNotifier bookingNotifier;
 
     @PostMapping
     public BookingDto createBooking(@Valid @RequestBody BookingDtoPost bookingDtoPost,
@@ -42,6 +70,25 @@ public class BookingController {
         return bookingService.updateBookingStatus(bookingId, approved, ownerId);
     }
 
+    // тело — массив id бронирований; ответ — результат по каждому id в порядке запроса
+    @PatchMapping
+    public List<BookingStatusResultDto> updateBookingStatuses(
+            @RequestBody @NotEmpty @Size(max = MAX_STATUS_BATCH_SIZE) List<@NotNull Long> bookingIds,
+            @RequestParam Boolean approved,
+            @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("Patch /bookings?approved={} for {} bookings by user {}", approved, bookingIds.size(), ownerId);
+        return bookingService.updateBookingStatuses(bookingIds, approved, ownerId);
+    }
+
+    // text/event-stream: события "booking" о новых бронированиях и сменах статуса, где пользователь —
+    // арендатор или владелец вещи; вместо опроса GET /bookings?state=WAITING
+    // тип text/event-stream выставляет сам SseEmitter; без produces ошибки подписки отдаются обычным JSON
+    @GetMapping("/events")
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get /bookings/events by user {}", userId);
+        return bookingNotifier.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable Long bookingId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -50,20 +97,80 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookingsByBooker(
+    public ResponseEntity<List<BookingDto>> getBookingsByBooker(
             @RequestHeader("X-Sharer-User-Id") Long bookerId,
-            @RequestParam(defaultValue = "ALL") @ValidBookingState String state) {
+            @RequestParam(defaultValue = "ALL") @ValidBookingState String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size) {
 
-        log.info("Get /bookings?state={} for booker {}", state, bookerId);
-        return bookingService.getBookingsByBooker(bookerId, state);
+        log.info("Get /bookings?state={}&cursor={}&size={} for booker {}", state, cursor, size, bookerId);
+        if (cursor == null && size == null) {
+            List<BookingDto> bookings = new ArrayList<>();
+            bookingService.streamBookingsByBooker(bookerId, state, bookings::add);
+            return ResponseEntity.ok(bookings);
+        }
+        return toResponse(bookingService.getBookingsByBooker(bookerId, state, cursor, pageSize(size)));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwner(
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(
             @RequestHeader("X-Sharer-User-Id") Long ownerId,
-            @RequestParam(defaultValue = "ALL") @ValidBookingState String state) {
+            @RequestParam(defaultValue = "ALL") @ValidBookingState String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size) {
+
+        log.info("Get /bookings/owner?state={}&cursor={}&size={} for owner {}", state, cursor, size, ownerId);
+        if (cursor == null && size == null) {
+            List<BookingDto> bookings = new ArrayList<>();
+            bookingService.streamBookingsByOwner(ownerId, state, bookings::add);
+            return ResponseEntity.ok(bookings);
+        }
+        return toResponse(bookingService.getBookingsByOwner(ownerId, state, cursor, pageSize(size)));
+    }
+
+    // агрегаты вместо выгрузки всех бронирований владельца; from и to — ISO, например 2024-06-01T00:00:00
+    @GetMapping("/owner/stats")
+    public OwnerBookingStatsDto getOwnerStats(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime to) {
+        log.info("Get /bookings/owner/stats?from={}&to={} for owner {}", from, to, ownerId);
+        return bookingService.getOwnerStats(ownerId, from, to);
+    }
+
+    // Accept: application/x-ndjson — все бронирования без пагинации, по строке на бронирование по мере чтения из БД
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                       @RequestParam(defaultValue = "ALL") @ValidBookingState String state,
+                                       HttpServletResponse response) throws IOException {
+        log.info("Get /bookings?state={} as NDJSON for booker {}", state, bookerId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            bookingService.streamBookingsByBooker(bookerId, state, writer);
+        }
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                      @RequestParam(defaultValue = "ALL") @ValidBookingState String state,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Get /bookings/owner?state={} as NDJSON for owner {}", state, ownerId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            bookingService.streamBookingsByOwner(ownerId, state, writer);
+        }
+    }
+
+    private static int pageSize(Integer size) {
+        return size != null ? size : DEFAULT_PAGE_SIZE;
+    }
 
-        log.info("Get /bookings/owner?state={} for owner {}", state, ownerId);
-        return bookingService.getBookingsByOwner(ownerId, state);
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -6,6 +6,7 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoPost;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -25,4 +26,6 @@ public interface BookingMapper {
     Booking toBookingFromPost(BookingDtoPost bookingDtoPost, Item item, User booker);
 
     BookingDtoShort toBookingDtoShort(Booking booking);
+
+    BookingNotificationDto toBookingNotificationDto(BookingChangedEvent event);
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Списки бронирований по состоянию: один запрос на любую пару (роль, состояние) вместо метода на каждую.
+ * Строки читаются сразу в DTO, минуя контекст персистентности.
+ */
+public interface BookingPageRepository {
+
+    // до limit бронирований пользователя в роли role и состоянии state (на момент now), строго после курсора,
+    // в порядке (start DESC, id DESC); строки-проекции: без сущностей, прокси и снимков для dirty checking
+    List<BookingDto> findDtoPage(BookingRole role, Long userId, BookingStateParam state, LocalDateTime now,
+                                 BookingCursor after, int limit);
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// реализация фрагмента BookingRepository (находится Spring Data по суффиксу Impl)
+class BookingPageRepositoryImpl implements BookingPageRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findDtoPage(BookingRole role, Long userId, BookingStateParam state, LocalDateTime now,
+                                        BookingCursor after, int limit) {
+        return dtoQuery(role, userId, state, now, after)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(BookingPageRepositoryImpl::toBookingDto)
+                .toList();
+    }
+
+    private TypedQuery<Tuple> dtoQuery(BookingRole role, Long userId, BookingStateParam state, LocalDateTime now,
+                                       BookingCursor after) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Booking> booking = query.from(Booking.class);
+        // обычные join: колонки читаются в кортеж, сущности не создаются.
+        // item.request.id — значение внешнего ключа, соединения с item_requests нет
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+
+        query.multiselect(booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                     item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                     booker.get("id"), booker.get("name"), booker.get("email"), item.get("request").get("id"))
+             .where(filter(cb, booking, role, userId, state, now, after))
+             .orderBy(order(cb, booking, role, state));
+        return entityManager.createQuery(query);
+    }
+
+    private static Predicate[] filter(CriteriaBuilder cb, Root<Booking> booking, BookingRole role, Long userId,
+                                      BookingStateParam state, LocalDateTime now, BookingCursor after) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        // обе роли — колонки самой bookings: индекс (booker_id | owner_id, start_date, id) отдает строки
+        // уже в порядке сортировки, соединения выполняются только для строк страницы
+        where.add(switch (role) {
+            case BOOKER -> cb.equal(booking.get("booker").get("id"), userId);
+            case OWNER -> cb.equal(booking.get("ownerId"), userId);
+        });
+        switch (state) {
+            case ALL -> {
+            }
+            // CURRENT: start <= now < end
+            case CURRENT -> where.add(cb.and(cb.lessThanOrEqualTo(start, now), cb.greaterThan(end, now)));
+            // start < now следует из end <= now, но ограничивает диапазон индекса по start_date:
+            // иначе обход с самых поздних начал сначала пропускает все будущие бронирования
+            case PAST -> where.add(cb.and(cb.lessThan(start, now), cb.lessThanOrEqualTo(end, now)));
+            case FUTURE -> where.add(cb.greaterThan(start, now));
+            case WAITING -> where.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+            case REJECTED -> where.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+        }
+        // keyset: строки строго после (after.start, after.id)
+        where.add(cb.or(cb.lessThan(start, after.start()),
+                cb.and(cb.equal(start, after.start()), cb.lessThan(id, after.id()))));
+        return where.toArray(Predicate[]::new);
+    }
+
+    // start DESC, id DESC. Для владельца впереди колонки, зафиксированные фильтром: порядок от этого не меняется,
+    // но совпадает с индексами idx_bookings_owner_* — H2 иначе не берет из них готовый порядок
+    private static List<Order> order(CriteriaBuilder cb, Root<Booking> booking, BookingRole role,
+                                     BookingStateParam state) {
+        List<Order> order = new ArrayList<>();
+        if (role == BookingRole.OWNER) {
+            order.add(cb.asc(booking.get("ownerId")));
+            if (state == BookingStateParam.WAITING || state == BookingStateParam.REJECTED) {
+                order.add(cb.asc(booking.get("status")));
+            }
+        }
+        order.add(cb.desc(booking.get("start")));
+        order.add(cb.desc(booking.get("id")));
+        return order;
+    }
+
+    // порядок колонок — как в multiselect dtoQuery; поля те же, что заполняет BookingMapper.toBookingDto
+    private static BookingDto toBookingDto(Tuple row) {
+        ItemDto item = new ItemDto(row.get(4, Long.class), row.get(5, String.class), row.get(6, String.class),
+                row.get(7, Boolean.class), row.get(11, Long.class));
+        UserDto booker = new UserDto(row.get(8, Long.class), row.get(9, String.class), row.get(10, String.class));
+        return new BookingDto(row.get(0, Long.class), row.get(1, LocalDateTime.class),
+                row.get(2, LocalDateTime.class), item, booker, row.get(3, BookingStatus.class));
+    }
+}
@@ -1,84 +1,111 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.dto.ItemStatusStats;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    // Базовая часть запроса для устранения дублирования JOIN FETCH
-    String BASE_FETCH = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "JOIN FETCH b.booker ";
-
-    // --- Бронирования арендатора (booker) ---
-
-    // ALL for booker: все бронирования арендатора, загружаем item и owner и booker чтобы избежать N+1
-    @Query(BASE_FETCH +
-            "WHERE b.booker.id = :userId " +
-            "ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdOrderByStartDesc(@Param("userId") Long userId);
-
-    // WAITING or REJECTED or APPROVED by status for booker
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    // CURRENT: start <= now < end  (Запросный метод не подойдет, т.к. нужна строгая граница  start <= now)
-    @Query(BASE_FETCH +
-            "WHERE b.booker.id = :userId AND b.start <= :now AND b.end > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentByBookerId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
-
-    // PAST: end <= now
-    @Query(BASE_FETCH +
-            "WHERE b.booker.id = :userId AND b.end <= :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findPastByBookerId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
-
-    // FUTURE: start > now
-    @Query(BASE_FETCH +
-            "WHERE b.booker.id = :userId AND b.start > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findFutureByBookerId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
-
-    /* --- Аналогичные методы для владельца (owner) --- */
-
-    @Query(BASE_FETCH +
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingPageRepository {
+
+    // есть ли у вещи бронирование в одном из статусов, пересекающееся с полуинтервалом [start, end)
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("statuses") Collection<BookingStatus> statuses,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    // брал ли пользователь вещь в аренду: есть бронирование в статусе, закончившееся до момента end
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId,
+                                                           Long itemId,
+                                                           BookingStatus status,
+                                                           LocalDateTime end);
+
+    // бронирование со всем, что нужно мапперу и событию, и права пользователя на него — один запрос по первичному
+    // ключу: владелец — собственная колонка owner_id, существование пользователя — подзапрос по первичному ключу
+    // users. Пустой результат — бронирования нет (404), строка без booker и owner — нет доступа (403)
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingAccess(b, " +
+            "CASE WHEN b.booker.id = :userId THEN true ELSE false END, " +
+            "CASE WHEN b.ownerId = :userId THEN true ELSE false END, " +
+            "CASE WHEN EXISTS (SELECT u.id FROM User u WHERE u.id = :userId) THEN true ELSE false END) " +
+            "FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.id = :bookingId")
+    Optional<BookingAccess> findAccess(@Param("bookingId") Long bookingId, @Param("userId") Long userId);
+
+    // пакетная смена статуса: владелец — собственная колонка owner_id, вещи не загружаются,
+    // строки бронирований блокируются до коммита, чтобы статус не сменили параллельно; блокировки берутся
+    // в порядке id, поэтому пересекающиеся пакеты ждут друг друга, а не взаимоблокируются
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids ORDER BY b.id")
+    List<Booking> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    // бронирования набора вещей в статусе (загрузка таймлайнов вещей), item и booker не нужны — только их id
+    List<Booking> findByItemIdInAndStatus(Collection<Long> itemIds, BookingStatus status);
+
+    // сводка вещи (ItemSummary): подтвержденное бронирование, закончившееся последним строго до момента
+    @Query("SELECT new ru.practicum.shareit.booking.timeline.BookingInterval(b.id, b.start, b.end, b.booker.id) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.end < :moment " +
+            "ORDER BY b.end DESC, b.id DESC")
+    List<BookingInterval> findApprovedEndedBefore(@Param("itemId") Long itemId,
+                                                  @Param("moment") LocalDateTime moment,
+                                                  Limit limit);
+
+    // ближайшее подтвержденное бронирование, начинающееся строго после момента
+    @Query("SELECT new ru.practicum.shareit.booking.timeline.BookingInterval(b.id, b.start, b.end, b.booker.id) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start > :moment " +
+            "ORDER BY b.start, b.id")
+    List<BookingInterval> findApprovedStartingAfter(@Param("itemId") Long itemId,
+                                                    @Param("moment") LocalDateTime moment,
+                                                    Limit limit);
+
+    // вещи с подтвержденными бронированиями арендатора: их сводки пересчитываются при удалении арендатора
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED")
+    List<Long> findApprovedItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    // ближайшее окончание подтвержденного бронирования не раньше момента: тогда сменится последнее бронирование
+    @Query("SELECT MIN(b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.end >= :moment")
+    Optional<LocalDateTime> findFirstApprovedEndNotBefore(@Param("itemId") Long itemId,
+                                                          @Param("moment") LocalDateTime moment);
+
+    // статистика владельца: одна строка на вещь и статус, объем ответа не зависит от числа бронирований.
+    // Длительность — пересечение бронирования с [from, to) в секундах, current — идущие в момент now
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemStatusStats(i.id, i.name, b.status, COUNT(b), " +
+            "SUM(CASE WHEN b.start < :to AND b.end > :from " +
+            "THEN (least(b.end, :to) - greatest(b.start, :from)) by second ELSE 0 END), " +
+            "SUM(CASE WHEN b.start <= :now AND b.end > :now THEN 1 ELSE 0 END)) " +
+            "FROM Item i LEFT JOIN Booking b ON b.item = i " +
             "WHERE i.owner.id = :ownerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> findAllByOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
-
-    @Query(BASE_FETCH +
-            "WHERE i.owner.id = :ownerId AND b.start <= :now AND b.end > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
-
-    @Query(BASE_FETCH +
-            "WHERE i.owner.id = :ownerId AND b.end <= :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findPastByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
-
-    @Query(BASE_FETCH +
-            "WHERE i.owner.id = :ownerId AND b.start > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findFutureByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
-
-
-    // получить все APPROVED бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +     // в вызываемом методе есть обращение в цикле booking.getItem().getId()
-            "WHERE b.item.owner.id = :ownerId " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findBookingsByOwner(@Param("ownerId") Long ownerId);
+            "GROUP BY i.id, i.name, b.status " +
+            "ORDER BY i.id")
+    List<ItemStatusStats> findOwnerStats(@Param("ownerId") Long ownerId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("now") LocalDateTime now);
 }
-
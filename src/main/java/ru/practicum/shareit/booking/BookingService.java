@@ -2,17 +2,34 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(BookingDtoPost bookingDtoPost, Long bookerId);
 
     BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId);
 
+    // подтверждение или отклонение набора бронирований одной транзакцией, результат — по каждому id
+    List<BookingStatusResultDto> updateBookingStatuses(List<Long> bookingIds, Boolean approved, Long ownerId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getBookingsByBooker(Long bookerId, String state);
+    BookingPageDto getBookingsByBooker(Long bookerId, String state, String cursor, int size);
+
+    BookingPageDto getBookingsByOwner(Long ownerId, String state, String cursor, int size);
+
+    // все бронирования без пагинации, передаются в action по одному; из БД читаются страницами,
+    // соединение между страницами не удерживается
+    void streamBookingsByBooker(Long bookerId, String state, Consumer<? super BookingDto> action);
+
+    void streamBookingsByOwner(Long ownerId, String state, Consumer<? super BookingDto> action);
 
-    List<BookingDto> getBookingsByOwner(Long ownerId, String state);
+    // счетчики по статусам, занятые дни в периоде [from, to) и текущая занятость — по вещам владельца и в сумме
+    OwnerBookingStatsDto getOwnerStats(Long ownerId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -1,35 +1,69 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingAccess;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.booking.dto.ItemStatusStats;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingStateParam;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.exception.ValidationExceptionDuplicate;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.BookingStateTagResolver;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "shareit.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class BookingServiceImpl implements BookingService {
+    // бронирования в этих статусах занимают вещь, пересекаться по времени они не могут
+    private static final Set<BookingStatus> OCCUPYING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+    // строк в одном запросе потоковой выдачи
+    static final int STREAM_PAGE_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
     private final BookingMapper bookingMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -40,8 +74,9 @@ public class BookingServiceImpl implements BookingService {
                                          new NotFoundException(
                                                  "Пользователь с id=" + bookerId + " не существует"));
 
-        // Проверяем существование вещи — дальше нужен объект item, берем всю сущность
-        Item item = itemService.getItemById(bookingDtoPost.getItemId())
+        // Проверяем существование вещи — дальше нужен объект item, берем всю сущность.
+        // Строка вещи блокируется до коммита: проверка пересечений и вставка для одной вещи идут по очереди
+        Item item = itemService.getItemByIdForUpdate(bookingDtoPost.getItemId())
                                .orElseThrow(() ->
                                        new NotFoundException(
                                                "Вещь с id=" + bookingDtoPost.getItemId() + " не существует"));
@@ -62,12 +97,19 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала должна быть раньше даты окончания");
         }
 
+        // Проверяем, что вещь свободна на эти даты
+        if (bookingRepository.existsOverlapping(item.getId(), OCCUPYING_STATUSES,
+                bookingDtoPost.getStart(), bookingDtoPost.getEnd())) {
+            throw new ValidationExceptionDuplicate("Вещь уже забронирована на пересекающийся период");
+        }
+
         log.info("СОЗДАНИЕ booking: start={}, end={}, itemId={}, bookerId={}",
                 bookingDtoPost.getStart(), bookingDtoPost.getEnd(),
                 bookingDtoPost.getItemId(), bookerId);
 
         Booking booking = bookingMapper.toBookingFromPost(bookingDtoPost, item, booker);
         Booking savedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking));
 
         log.info("ПОСЛЕ Booking created successfully: id={}", savedBooking.getId());
         return bookingMapper.toBookingDto(savedBooking);
@@ -76,16 +118,17 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                                           .orElseThrow(() ->
-                                                   new NotFoundException(
-                                                           "Бронирование с id=" + bookingId + " не существует"));
-
+        // бронирование с вещью, владельцем и арендатором и права пользователя — одним запросом
+        BookingAccess access = bookingRepository.findAccess(bookingId, ownerId)
+                                                .orElseThrow(() ->
+                                                        new NotFoundException(
+                                                                "Бронирование с id=" + bookingId + " не существует"));
 
         // Проверяем, что пользователь - владелец вещи
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!access.owner()) {
             throw new AccessDeniedException("Только владелец вещи может подтверждать бронирование");
         }
+        Booking booking = access.booking();
 
         // Проверяем, что статус еще не изменен
         if (booking.getStatus() != BookingStatus.WAITING) {
@@ -94,89 +137,196 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(updatedBooking));
         return bookingMapper.toBookingDto(updatedBooking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingStatusResultDto> updateBookingStatuses(List<Long> bookingIds, Boolean approved, Long ownerId) {
+        // владение и статус проверяются для всего набора по одному запросу
+        Set<Long> uniqueIds = new LinkedHashSet<>(bookingIds);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInForUpdate(uniqueIds)
+                                                       .stream()
+                                                       .collect(Collectors.toMap(Booking::getId,
+                                                               Function.identity()));
+        // владелец хотя бы одного бронирования набора существует, отдельный запрос нужен только без таких
+        boolean ownsAny = bookings.values().stream().anyMatch(booking -> booking.getOwnerId().equals(ownerId));
+        if (!ownsAny && !userService.existsById(ownerId)) {
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
+        }
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+        // новый статус записывается при flush одним пакетом UPDATE (hibernate.jdbc.batch_size)
+        List<BookingStatusResultDto> results = uniqueIds.stream().map(bookingId -> {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                return new BookingStatusResultDto(bookingId, null,
+                        "Бронирование с id=" + bookingId + " не существует");
+            }
+            if (!booking.getOwnerId().equals(ownerId)) {
+                return new BookingStatusResultDto(bookingId, null,
+                        "Только владелец вещи может подтверждать бронирование");
+            }
+            if (booking.getStatus() != BookingStatus.WAITING) {
+                return new BookingStatusResultDto(bookingId, booking.getStatus(), "Статус бронирования уже изменен");
+            }
+            booking.setStatus(newStatus);
+            eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+            return new BookingStatusResultDto(bookingId, newStatus, null);
+        }).collect(Collectors.toList());
+
+        log.info("Пакетная смена статуса на {} владельцем {}: {} из {} бронирований", newStatus, ownerId,
+                results.stream().filter(result -> result.getError() == null).count(), uniqueIds.size());
+        return results;
+    }
+
     @Override
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                                           .orElseThrow(() ->
-                                                   new NotFoundException(
-                                                           "Бронирование с id=" + bookingId + " не существует"));
+        // бронирование, существование пользователя и его права — одним запросом
+        BookingAccess access = bookingRepository.findAccess(bookingId, userId)
+                                                .orElseThrow(() ->
+                                                        new NotFoundException(
+                                                                "Бронирование с id=" + bookingId + " не существует"));
 
-        // Проверяем существование пользователя (только факт, без загрузки)
-        if (!userService.existsById(userId)) {
+        if (!access.userExists()) {
             throw new NotFoundException("Пользователь с id=" + userId + " не существует");
         }
 
         // Проверяем, что пользователь имеет доступ к бронированию (либо инициатор, либо владелец)
-        if (!booking.getBooker().getId().equals(userId)
-                && !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!access.booker() && !access.owner()) {
             throw new AccessDeniedException("Пользователь не имеет доступа к данному бронированию");
         }
 
-        return bookingMapper.toBookingDto(booking);
+        return bookingMapper.toBookingDto(access.booking());
     }
 
     @Override
-    public List<BookingDto> getBookingsByBooker(Long bookerId, String state) {
+    public BookingPageDto getBookingsByBooker(Long bookerId,
+                                              @MeterTag(key = "state", resolver = BookingStateTagResolver.class)
+                                              String state, String cursor, int size) {
         // Проверяем существование пользователя (только факт, без загрузки)
         if (!userService.existsById(bookerId)) {
             throw new NotFoundException("Пользователь с id=" + bookerId + " не существует");
         }
 
-        BookingStateParam stateParam = BookingStateParam.valueOf(state);
-
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-
-        bookings = switch (stateParam) {
-            case ALL -> bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId);
-            case CURRENT -> bookingRepository.findCurrentByBookerId(bookerId, now);
-            case PAST -> bookingRepository.findPastByBookerId(bookerId, now);
-            case FUTURE -> bookingRepository.findFutureByBookerId(bookerId, now);
-            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.REJECTED);
-            default -> throw new ValidationException("Неизвестное состояние: " + state);
-        };
-
-        return bookings.stream()
-                       .map(bookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+        return findPage(BookingRole.BOOKER, bookerId, state, cursor, size);
     }
 
     @Override
-    public List<BookingDto> getBookingsByOwner(Long ownerId, String state) {
+    public BookingPageDto getBookingsByOwner(Long ownerId,
+                                             @MeterTag(key = "state", resolver = BookingStateTagResolver.class)
+                                             String state, String cursor, int size) {
         // Проверяем существование пользователя (только факт — без загрузки User)
         if (!userService.existsById(ownerId)) {
             throw new NotFoundException("Владелец с id=" + ownerId + " не существует");
         }
-        BookingStateParam stateParam = BookingStateParam.valueOf(state);
+        return findPage(BookingRole.OWNER, ownerId, state, cursor, size);
+    }
 
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamBookingsByBooker(Long bookerId,
+                                       @MeterTag(key = "state", resolver = BookingStateTagResolver.class)
+                                       String state, Consumer<? super BookingDto> action) {
+        if (!userService.existsById(bookerId)) {
+            throw new NotFoundException("Пользователь с id=" + bookerId + " не существует");
+        }
+        stream(BookingRole.BOOKER, bookerId, state, action);
+    }
 
-        bookings = switch (stateParam) {
-            case ALL -> bookingRepository.findAllByOwnerIdOrderByStartDesc(ownerId);
-            case CURRENT -> bookingRepository.findCurrentByOwnerId(ownerId, now);
-            case PAST -> bookingRepository.findPastByOwnerId(ownerId, now);
-            case FUTURE -> bookingRepository.findFutureByOwnerId(ownerId, now);
-            case WAITING ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-            default -> throw new ValidationException("Неизвестное состояние: " + state);
-        };
-
-        return bookings.stream()
-                       .map(bookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamBookingsByOwner(Long ownerId,
+                                      @MeterTag(key = "state", resolver = BookingStateTagResolver.class)
+                                      String state, Consumer<? super BookingDto> action) {
+        if (!userService.existsById(ownerId)) {
+            throw new NotFoundException("Владелец с id=" + ownerId + " не существует");
+        }
+        stream(BookingRole.OWNER, ownerId, state, action);
     }
-}
 
+    // один сгруппированный запрос по bookings и items: строк не больше, чем вещей владельца на число статусов
+    @Override
+    public OwnerBookingStatsDto getOwnerStats(Long ownerId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше окончания");
+        }
+        if (!userService.existsById(ownerId)) {
+            throw new NotFoundException("Владелец с id=" + ownerId + " не существует");
+        }
 
+        long periodSeconds = Duration.between(from, to).toSeconds();
+        Map<Long, ItemBookingStatsDto> items = new LinkedHashMap<>();
+        Map<BookingStatus, Long> totalCounts = zeroStatusCounts();
+        long totalBookedSeconds = 0;
+        for (ItemStatusStats row : bookingRepository.findOwnerStats(ownerId, from, to, LocalDateTime.now())) {
+            ItemBookingStatsDto item = items.computeIfAbsent(row.itemId(), id ->
+                    new ItemBookingStatsDto(id, row.itemName(), zeroStatusCounts(), 0, 0, false));
+            if (row.status() == null) {
+                continue;
+            }
+            item.getStatusCounts().put(row.status(), row.bookings());
+            totalCounts.merge(row.status(), row.bookings(), Long::sum);
+            // занимают вещь только подтвержденные бронирования
+            if (row.status() == BookingStatus.APPROVED) {
+                item.setBookedDays(toDays(row.bookedSeconds()));
+                item.setUtilization((double) row.bookedSeconds() / periodSeconds);
+                item.setOccupied(row.current() > 0);
+                totalBookedSeconds += row.bookedSeconds();
+            }
+        }
 
+        int occupiedItems = (int) items.values().stream().filter(ItemBookingStatsDto::isOccupied).count();
+        double utilization = items.isEmpty() ? 0 : (double) totalBookedSeconds / periodSeconds / items.size();
+        return new OwnerBookingStatsDto(from, to, totalCounts, toDays(totalBookedSeconds), utilization,
+                occupiedItems, List.copyOf(items.values()));
+    }
 
+    private static Map<BookingStatus, Long> zeroStatusCounts() {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        for (BookingStatus status : BookingStatus.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+
+    private static double toDays(long seconds) {
+        return (double) seconds / Duration.ofDays(1).toSeconds();
+    }
+
+    // каждая страница читается по курсору в своей короткой транзакции, строки отдаются после ее коммита:
+    // пока медленный клиент читает ответ, соединение из пула не занято. Состояние — на один момент now
+    private void stream(BookingRole role, Long userId, String state, Consumer<? super BookingDto> action) {
+        BookingStateParam stateParam = BookingStateParam.valueOf(state.toUpperCase(Locale.ROOT));
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor after = BookingCursor.FIRST;
+        List<BookingDto> page;
+        do {
+            BookingCursor cursor = after;
+            page = transactionTemplate.execute(status ->
+                    bookingRepository.findDtoPage(role, userId, stateParam, now, cursor, STREAM_PAGE_SIZE));
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                after = BookingCursor.of(page.get(page.size() - 1));
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
 
+    private BookingPageDto findPage(BookingRole role, Long userId, String state, String cursor, int size) {
+        // запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        List<BookingDto> bookings = bookingRepository.findDtoPage(role, userId,
+                BookingStateParam.valueOf(state.toUpperCase(Locale.ROOT)), LocalDateTime.now(),
+                BookingCursor.decode(cursor), size + 1);
+        return toPage(bookings, size);
+    }
 
+    // лишняя (size + 1)-я строка означает, что есть следующая страница
+    private BookingPageDto toPage(List<BookingDto> bookings, int size) {
+        List<BookingDto> page = bookings.size() > size ? bookings.subList(0, size) : bookings;
+        String next = bookings.size() > size
+                ? BookingCursor.of(page.get(page.size() - 1)).encode()
+                : null;
+        return new BookingPageDto(page, next);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Бронирование вместе с правами пользователя на него — одной строкой, без отдельных запросов
+ * на существование пользователя и без обхода item.owner.
+ *
+ * @param booker     пользователь — арендатор
+ * @param owner      пользователь — владелец вещи
+ * @param userExists пользователь существует (при booker или owner — всегда true)
+ */
+public record BookingAccess(Booking booking, boolean booker, boolean owner, boolean userExists) {
+}
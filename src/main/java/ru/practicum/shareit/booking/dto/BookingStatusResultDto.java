@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Результат смены статуса одного бронирования в пакетной операции:
+ * error == null — статус изменен на status, иначе бронирование не изменено.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingStatusResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+}
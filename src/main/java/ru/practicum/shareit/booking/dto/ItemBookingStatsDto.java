@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingStatsDto {
+    private Long itemId;
+    private String itemName;
+    // число бронирований в каждом статусе, за все время
+    private Map<BookingStatus, Long> statusCounts;
+    // дни подтвержденных бронирований внутри периода и их доля от длины периода
+    private double bookedDays;
+    private double utilization;
+    // вещь сейчас в аренде по подтвержденному бронированию
+    private boolean occupied;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Строка агрегата по вещам владельца: бронирования вещи в одном статусе.
+ * У вещи без бронирований одна строка со status = null и нулями.
+ *
+ * @param bookedSeconds суммарная длительность бронирований внутри запрошенного периода
+ * @param current       сколько бронирований идет в текущий момент
+ */
+public record ItemStatusStats(Long itemId, String itemName, BookingStatus status, Long bookings,
+                              Long bookedSeconds, Long current) {
+}
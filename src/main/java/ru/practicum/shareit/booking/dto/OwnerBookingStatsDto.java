@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// сводная статистика владельца за период [from, to): итоги по всем вещам и по каждой вещи
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerBookingStatsDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Map<BookingStatus, Long> statusCounts;
+    private double bookedDays;
+    // доля занятого времени всех вещей владельца
+    private double utilization;
+    private int occupiedItems;
+    private List<ItemBookingStatsDto> items;
+}
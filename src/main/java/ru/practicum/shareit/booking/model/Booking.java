@@ -8,10 +8,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -22,15 +25,24 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+// индексы продублированы в schema.sql — на случай, если схему создает Hibernate (ddl-auto)
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_booker_start", columnList = "booker_id, start_date, id"),
+        @Index(name = "idx_bookings_booker_status_start", columnList = "booker_id, status, start_date, id"),
+        @Index(name = "idx_bookings_owner_start", columnList = "owner_id, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_owner_status_start", columnList = "owner_id, status, start_date DESC, id DESC"),
+        @Index(name = "idx_bookings_item_status_start", columnList = "item_id, status, start_date, id"),
+        @Index(name = "idx_bookings_item_status_end", columnList = "item_id, status, end_date"),
+        @Index(name = "idx_bookings_booker_item_end", columnList = "booker_id, item_id, status, end_date")
+})
 @Getter
 @Setter
 @ToString
-@AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -50,4 +62,25 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status;
+
+    // владелец вещи, копия items.owner_id: списки владельца идут по индексам bookings без соединения с items.
+    // Заполняется при вставке, владелец вещи не меняется
+    @Setter(AccessLevel.NONE)
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Long ownerId;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
+    // id владельца берется из прокси без загрузки пользователя
+    @PrePersist
+    void fillOwnerId() {
+        ownerId = item.getOwner().getId();
+    }
 }
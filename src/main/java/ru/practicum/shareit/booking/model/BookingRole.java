@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.model;
+
+// чьи бронирования запрашиваются: пользователя как арендатора или как владельца вещей
+public enum BookingRole {
+    BOOKER, OWNER
+}
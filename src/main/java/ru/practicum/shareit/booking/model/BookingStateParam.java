@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Locale;
 
 public enum BookingStateParam {
     ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
@@ -7,7 +8,7 @@ public enum BookingStateParam {
     public static boolean isValid(String state) {
         if (state == null) return false;
         try {
-            BookingStateParam.valueOf(state.toUpperCase());
+            BookingStateParam.valueOf(state.toUpperCase(Locale.ROOT));
             return true;
         } catch (IllegalArgumentException e) {
             return false;
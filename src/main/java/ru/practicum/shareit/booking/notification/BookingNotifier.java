@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Рассылка изменений бронирований по SSE (GET /bookings/events) арендатору и владельцу вещи.
+ * <p>
+ * После коммита событие без ожидания ставится в ограниченную очередь каждого соединения пользователя,
+ * так что медленный клиент не задерживает ни транзакцию, ни других подписчиков. Переполненная очередь
+ * закрывает соединение: клиент переподключается и перечитывает бронирования обычным запросом.
+ * Простаивающее соединение держит только припаркованный виртуальный поток и асинхронный запрос Tomcat.
+ */
+@Slf4j
+@Component
+public class BookingNotifier {
+    private final Map<Long, Set<BookingSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final UserService userService;
+    private final BookingMapper bookingMapper;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Counter overflows;
+
+    public BookingNotifier(UserService userService,
+                           BookingMapper bookingMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.notifications.buffer-size}") int bufferSize,
+                           @Value("${shareit.notifications.heartbeat}") Duration heartbeat,
+                           @Value("${shareit.notifications.timeout}") Duration timeout) {
+        this.userService = userService;
+        this.bookingMapper = bookingMapper;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.overflows = Counter.builder("shareit.notifications.overflows")
+                                .description("SSE-соединения, закрытые из-за переполнения очереди")
+                                .register(meterRegistry);
+        Gauge.builder("shareit.notifications.subscribers", subscribers,
+                     map -> map.values().stream().mapToInt(Set::size).sum())
+             .description("Открытые SSE-соединения")
+             .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (!userService.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(userId, emitter);
+        return emitter;
+    }
+
+    void register(Long userId, SseEmitter emitter) {
+        BookingSubscriber subscriber = new BookingSubscriber(emitter, bufferSize, heartbeat);
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<BookingSubscriber> result = userSubscribers != null ? userSubscribers : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        Runnable unsubscribe = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        subscriber.start();
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingNotificationDto notification = bookingMapper.toBookingNotificationDto(event);
+        deliver(event.bookerId(), notification);
+        deliver(event.ownerId(), notification);
+    }
+
+    private void deliver(Long userId, BookingNotificationDto notification) {
+        Set<BookingSubscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (BookingSubscriber subscriber : userSubscribers) {
+            if (!subscriber.offer(notification)) {
+                log.warn("Очередь SSE пользователя {} переполнена, соединение закрывается", userId);
+                overflows.increment();
+                unsubscribe(userId, subscriber);
+            }
+        }
+    }
+
+    private void unsubscribe(Long userId, BookingSubscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+}
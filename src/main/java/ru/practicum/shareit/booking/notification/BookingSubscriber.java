@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.notification;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одно SSE-соединение: ограниченная очередь событий и виртуальный поток, который переписывает их в SseEmitter.
+ * Пока событий нет, поток припаркован в poll и раз в heartbeat шлет комментарий — прокси не закрывают
+ * соединение, а отключившийся клиент обнаруживается ошибкой записи.
+ */
+class BookingSubscriber {
+    private static final String EVENT_NAME = "booking";
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<BookingNotificationDto> queue;
+    private final Duration heartbeat;
+    private volatile boolean closed;
+    private volatile Thread drainer;
+
+    BookingSubscriber(SseEmitter emitter, int bufferSize, Duration heartbeat) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.heartbeat = heartbeat;
+    }
+
+    void start() {
+        drainer = Thread.ofVirtual().name("booking-sse").start(this::drain);
+    }
+
+    // без ожидания; false — очередь переполнена, клиент не успевает читать
+    boolean offer(BookingNotificationDto notification) {
+        return closed || queue.offer(notification);
+    }
+
+    void close() {
+        closed = true;
+        Thread thread = drainer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed) {
+                BookingNotificationDto notification = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (notification == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(notification, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            // close(): подписка снята, соединение завершается ниже
+        } catch (IOException | IllegalStateException e) {
+            // клиент отключился или соединение уже завершено — emitter закроет контейнер.
+            // Если же запись прервал close(), соединение завершается ниже
+            if (!closed) {
+                closed = true;
+                return;
+            }
+        }
+        emitter.complete();
+    }
+}
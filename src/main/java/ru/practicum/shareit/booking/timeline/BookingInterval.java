@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.timeline;
+
+import jakarta.persistence.Embeddable;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+
+import java.time.LocalDateTime;
+
+/**
+ * Подтвержденное бронирование вещи как полуинтервал времени [start, end).
+ * Встраивается в сводку вещи (ItemSummary) как последнее и следующее бронирование.
+ */
+@Embeddable
+public record BookingInterval(Long bookingId, LocalDateTime start, LocalDateTime end, Long bookerId) {
+
+    public BookingDtoShort toBookingDtoShort() {
+        return new BookingDtoShort(bookingId, start, end, bookerId);
+    }
+}
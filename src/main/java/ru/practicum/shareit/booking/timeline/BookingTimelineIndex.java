@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Таймлайны подтвержденных бронирований по вещам.
+ * <p>
+ * Таймлайн вещи загружается из БД при первом обращении (для набора вещей — одним запросом)
+ * и дальше поддерживается событиями BookingChangedEvent после коммита.
+ * Загрузка из запроса чтения может увидеть состояние до коммита изменения, поэтому событие
+ * для еще не загруженной вещи само читает уже закоммиченное состояние, а установка таймлайна идет через
+ * putIfAbsent: кто бы ни установил таймлайн первым, событие применяется к нему идемпотентно.
+ * Бронирования удаленного пользователя удаляет каскад в базе, без событий о них, поэтому удаление
+ * пользователя сбрасывает все таймлайны.
+ * <p>
+ * В памяти держатся таймлайны не более shareit.booking-timelines.max-items вещей, редко читаемые вытесняются.
+ * Вытесненный таймлайн мог уже получить событие, которого нет в снимке параллельной загрузки, поэтому
+ * загрузка, во время которой пришло хоть одно событие, отдает таймлайн вызывающему, но не кэширует его.
+ */
+@Component
+public class BookingTimelineIndex {
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemTimeline> timelines;
+    // число примененных событий: загрузка кэшируется, только если за время ее запроса оно не изменилось
+    private final AtomicLong changes = new AtomicLong();
+
+    public BookingTimelineIndex(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.booking-timelines.max-items}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                                 .maximumSize(maxItems)
+                                 .recordStats()
+                                 .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bookingTimelines");
+    }
+
+    public ItemTimeline timeline(Long itemId) {
+        return timelines(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemTimeline> timelines(Collection<Long> itemIds) {
+        Map<Long, ItemTimeline> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemTimeline timeline = timelines.getIfPresent(itemId);
+            if (timeline != null) {
+                result.put(itemId, timeline);
+            } else {
+                missing.add(itemId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long changesBeforeLoad = changes.get();
+            Map<Long, ItemTimeline> loaded = load(missing);
+            if (changes.get() == changesBeforeLoad) {
+                loaded.forEach((itemId, timeline) -> result.put(itemId, install(itemId, timeline)));
+            } else {
+                result.putAll(loaded);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        changes.incrementAndGet();
+        ItemTimeline timeline = timelines.getIfPresent(event.itemId());
+        if (timeline == null) {
+            timeline = install(event.itemId(), load(List.of(event.itemId())).get(event.itemId()));
+        }
+        if (event.status() == BookingStatus.APPROVED) {
+            timeline.put(new BookingInterval(event.bookingId(), event.start(), event.end(), event.bookerId()));
+        } else {
+            timeline.remove(event.bookingId());
+        }
+    }
+
+    // удаление пользователя редкое: таймлайны перечитываются из базы, а не ищутся по арендатору и владельцу
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        changes.incrementAndGet();
+        timelines.invalidateAll();
+    }
+
+    // вытеснение в Caffeine отложенное: число вещей в памяти после завершения отложенной работы
+    long cachedItems() {
+        timelines.cleanUp();
+        return timelines.estimatedSize();
+    }
+
+    private ItemTimeline install(Long itemId, ItemTimeline loaded) {
+        ItemTimeline existing = timelines.asMap().putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private Map<Long, ItemTimeline> load(Collection<Long> itemIds) {
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        itemIds.forEach(itemId -> loaded.put(itemId, new ItemTimeline()));
+        for (Booking booking : bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED)) {
+            loaded.get(booking.getItem().getId())
+                  .put(new BookingInterval(booking.getId(), booking.getStart(), booking.getEnd(),
+                          booking.getBooker().getId()));
+        }
+        return loaded;
+    }
+}
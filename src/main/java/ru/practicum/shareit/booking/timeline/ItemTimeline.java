@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking.timeline;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подтвержденные бронирования одной вещи, упорядоченные по началу и по окончанию.
+ * Поиск последнего и следующего бронирования и проверка свободного окна — O(log n) независимо от глубины истории,
+ * выборка бронирований периода — O(log n + k).
+ */
+public class ItemTimeline {
+    private final NavigableMap<Key, BookingInterval> byStart = new TreeMap<>();
+    private final NavigableMap<Key, BookingInterval> byEnd = new TreeMap<>();
+    private final Map<Long, BookingInterval> byId = new HashMap<>();
+    // не synchronized: виртуальный поток, заблокированный на мониторе, удерживает поток-носитель
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // повторное добавление того же бронирования заменяет прежнюю запись
+    public void put(BookingInterval interval) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(interval.bookingId());
+            byId.put(interval.bookingId(), interval);
+            byStart.put(new Key(interval.start(), interval.bookingId()), interval);
+            byEnd.put(new Key(interval.end(), interval.bookingId()), interval);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookingId) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // бронирование, закончившееся последним строго до moment
+    public Optional<BookingInterval> lastEndedBefore(LocalDateTime moment) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byEnd.lowerEntry(new Key(moment, Long.MIN_VALUE)))
+                           .map(Map.Entry::getValue);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ближайшее бронирование, начинающееся строго после moment
+    public Optional<BookingInterval> nextStartingAfter(LocalDateTime moment) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(byStart.higherEntry(new Key(moment, Long.MAX_VALUE)))
+                           .map(Map.Entry::getValue);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // нет ни одного бронирования, пересекающегося с полуинтервалом [start, end).
+    // Подтвержденные бронирования вещи не пересекаются, поэтому достаточно проверить последнее начавшееся до end
+    public boolean isFree(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            Map.Entry<Key, BookingInterval> latest = byStart.lowerEntry(new Key(end, Long.MIN_VALUE));
+            return latest == null || !latest.getValue().end().isAfter(start);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // бронирования, пересекающиеся с полуинтервалом [start, end), по возрастанию начала
+    public List<BookingInterval> overlapping(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            List<BookingInterval> result = new ArrayList<>();
+            // начавшееся до start может еще продолжаться; раньше него — уже нет, они не пересекаются
+            Map.Entry<Key, BookingInterval> before = byStart.lowerEntry(new Key(start, Long.MIN_VALUE));
+            if (before != null && before.getValue().end().isAfter(start)) {
+                result.add(before.getValue());
+            }
+            result.addAll(byStart.subMap(new Key(start, Long.MIN_VALUE), new Key(end, Long.MIN_VALUE)).values());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnderLock(Long bookingId) {
+        BookingInterval previous = byId.remove(bookingId);
+        if (previous != null) {
+            byStart.remove(new Key(previous.start(), bookingId));
+            byEnd.remove(new Key(previous.end(), bookingId));
+        }
+    }
+
+    private record Key(LocalDateTime time, long bookingId) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(bookingId, other.bookingId);
+        }
+    }
+}
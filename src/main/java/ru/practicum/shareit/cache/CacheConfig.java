@@ -0,0 +1,35 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Кэши Spring поверх Caffeine. Сущности User и Item кэширует Hibernate (кэш второго уровня,
+ * регионы users и items в application.conf), здесь — только то, что в него не попадает.
+ * Метрики cache.gets / cache.puts / cache.evictions публикует автоконфигурация Spring Boot.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    // id, по которым пользователь не найден: кэшируется только отрицательный ответ existsById
+    public static final String UNKNOWN_USER_IDS = "unknownUserIds";
+
+    // сброс по коммиту: иначе параллельный existsById успеет закэшировать ещё не созданного пользователя
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(UNKNOWN_USER_IDS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                                         .maximumSize(10_000)
+                                         .expireAfterWrite(Duration.ofMinutes(1))
+                                         .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -1,14 +1,31 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
 
-    List<Comment> findByItemOwnerId(Long ownerId);
+    // автор нужен для authorName в CommentDto, загружаем сразу чтобы избежать N+1
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id = :itemId")
+    List<Comment> findByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.owner.id = :ownerId")
+    List<Comment> findByItemOwnerId(@Param("ownerId") Long ownerId);
+
+    // комментарии сразу для набора вещей (один запрос вместо запроса на каждую вещь)
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -1,9 +1,19 @@
 package ru.practicum.shareit.item;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,18 +25,27 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoPost;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.web.JsonValuesReader;
+import ru.practicum.shareit.web.NdjsonWriter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
 @RestController
+@Validated
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @PostMapping
     public ItemDto createItem(@Valid @RequestBody ItemDtoPost itemDtoPost,
@@ -35,6 +54,17 @@ public class ItemController {
         return itemService.createItem(itemDtoPost, ownerId);
     }
 
+    // тело — JSON-массив или NDJSON из ItemDtoPost, читается потоком по мере записи вещей
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                           HttpServletRequest request) throws IOException {
+        log.info("Post /items/import ({}) owner: {}", request.getContentType(), ownerId);
+        try (JsonValuesReader<ItemDtoPost> items = new JsonValuesReader<>(objectMapper, ItemDtoPost.class,
+                request.getInputStream(), validator)) {
+            return itemService.importItems(ownerId, items);
+        }
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestBody ItemDto itemDto,
@@ -49,16 +79,50 @@ public class ItemController {
         return itemService.getItemDtoById(itemId);
     }
 
+    // from и to — ISO, например 2024-06-01T00:00:00; слоты покрывают период [from, to) целиком
+    @GetMapping("/{itemId}/calendar")
+    public ItemCalendarDto getItemCalendar(@PathVariable Long itemId,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                           LocalDateTime from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                           LocalDateTime to) {
+        log.info("Get /items/{}/calendar - from: {}, to: {}", itemId, from, to);
+        return itemService.getItemCalendar(itemId, from, to);
+    }
+
     @GetMapping
     public List<ItemInfoDto> getAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
         log.info("Get /items/ - getAllItemsByOwner -> {}", ownerId);
         return itemService.getAllItemsByOwner(ownerId);
     }
 
+    // Accept: application/x-ndjson — по строке на вещь по мере чтения из БД
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                   HttpServletResponse response) throws IOException {
+        log.info("Get /items/ as NDJSON - owner {}", ownerId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+            itemService.streamItemsByOwner(ownerId, writer);
+        }
+    }
+
+    // с start и end (ISO, например 2024-06-01T10:00:00) — только вещи, свободные весь период;
+    // пустой text, как и без периода, дает пустой список
     @GetMapping("/search")
-    public Object searchItems(@RequestParam String text) {
-        log.info("Get /items/search - text: {}", text);
-        return itemService.searchItems(text);
+    public List<ItemDto> searchItems(@RequestParam(defaultValue = "") String text,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false)
+                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                     @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                     @RequestParam(defaultValue = "100") @Positive @Max(500) Integer size) {
+        log.info("Get /items/search - text: {}, start: {}, end: {}, from: {}, size: {}", text, start, end, from,
+                size);
+        if (start == null && end == null) {
+            return itemService.searchItems(text, from, size);
+        }
+        return itemService.searchFreeItems(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Запись порции новых вещей одного владельца: вставки вещей и их сводок уходят пакетами JDBC,
+ * после записи контекст персистентности очищается — память не растет с размером импорта.
+ */
+public interface ItemImportRepository {
+
+    // вызывать в транзакции; вещи получают id, но после вызова уже не управляемые
+    void insertAll(Long ownerId, List<Item> items);
+}
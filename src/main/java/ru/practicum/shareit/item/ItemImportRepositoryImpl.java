@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+// реализация фрагмента ItemRepository (находится Spring Data по суффиксу Impl)
+class ItemImportRepositoryImpl implements ItemImportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Long ownerId, List<Item> items) {
+        // импортированные вещи не вытесняют из кэша второго уровня те, что действительно читают
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        User owner = entityManager.getReference(User.class, ownerId);
+        for (Item item : items) {
+            item.setOwner(owner);
+            entityManager.persist(item);
+            entityManager.persist(new ItemSummary(item));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -21,15 +21,18 @@ import ru.practicum.shareit.user.model.User;
 public interface ItemMapper {
 
     // Item -> ItemDto
+    @Mapping(target = "requestId", source = "request.id")
     ItemDto toItemDto(Item item);
 
-    // ItemDtoPost -> Item
+    // ItemDtoPost -> Item (запрос по requestId проставляет сервис)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "request", ignore = true)
     Item toItemFromPost(ItemDtoPost itemDtoPost);
 
     // Item -> ItemInfoDto с бронированиями
     @Mapping(target = "id", source = "item.id")
+    @Mapping(target = "requestId", source = "item.request.id")
     // явно берём id из сущности
     ItemInfoDto toItemInfoDto(Item item, BookingDtoShort lastBooking, BookingDtoShort nextBooking);
 
@@ -41,6 +44,7 @@ public interface ItemMapper {
     // ItemDto -> Item
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "request", ignore = true)
     void updateItemFromDto(ItemDto itemDto, @MappingTarget Item item);
 
     // Comment -> CommentDto (с заполнением authorName)
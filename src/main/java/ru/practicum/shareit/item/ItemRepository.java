@@ -1,21 +1,92 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemAccess;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemImportRepository {
 
-    List<Item> findByOwnerId(Long ownerId);
+    // проекции для списков в ответах API: колонки сразу в DTO, без управляемых сущностей.
+    // i.request.id — значение внешнего ключа, соединения с item_requests нет
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemInfoDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.owner.id = :ownerId")
+    List<ItemInfoDto> findInfoDtosByOwnerId(@Param("ownerId") Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE " +
-            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) AND " +
-            "i.available = true")
-    List<Item> searchAvailableItems(@Param("text") String text);
-}
\ No newline at end of file
+    // то же страницами по id (keyset) для потоковой выдачи: каждая страница — отдельный короткий запрос
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemInfoDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.owner.id = :ownerId AND i.id > :afterId ORDER BY i.id")
+    List<ItemInfoDto> findInfoDtosByOwnerIdAfter(@Param("ownerId") Long ownerId,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.id IN :ids")
+    List<ItemDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    // вещь и права пользователя на нее одним запросом по первичному ключу.
+    // Пустой результат — вещи нет (404), строка без owner — нет доступа (403)
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemAccess(i, " +
+            "CASE WHEN i.owner.id = :userId THEN true ELSE false END, " +
+            "CASE WHEN EXISTS (SELECT u.id FROM User u WHERE u.id = :userId) THEN true ELSE false END) " +
+            "FROM Item i WHERE i.id = :itemId")
+    Optional<ItemAccess> findAccess(@Param("itemId") Long itemId, @Param("userId") Long userId);
+
+    // блокировка строки вещи до конца транзакции: сериализует бронирования одной вещи,
+    // бронирования разных вещей друг другу не мешают
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(@Param("itemId") Long itemId);
+
+    // порционная выгрузка доступных вещей по возрастанию id (построение поискового индекса)
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // только для Postgres: LIKE обслуживается триграммными индексами, порядок — по релевантности.
+    // pattern — '%' + text + '%' с экранированными \, % и _ (PostgresItemSearchEngine.likePattern),
+    // text — тот же запрос без экранирования для ранжирования
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) DESC, " +
+            "similarity(LOWER(i.name), :text) DESC, " +
+            "i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Long> searchAvailableItemIds(@Param("pattern") String pattern,
+                                      @Param("text") String text,
+                                      @Param("from") int from,
+                                      @Param("size") int size);
+
+    // только для Postgres: тот же поиск без вещей, занятых подтвержденным бронированием в окне [start, end).
+    // Пересечение tsrange обслуживается GiST-индексом ограничения ex_bookings_item_period (item_id, tsrange),
+    // его условие status IN ('WAITING', 'APPROVED') покрывает status = 'APPROVED'
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+            "AND tsrange(b.start_date, b.end_date) && tsrange(:start, :end)) " +
+            "ORDER BY ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) DESC, " +
+            "similarity(LOWER(i.name), :text) DESC, " +
+            "i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Long> searchFreeItemIds(@Param("pattern") String pattern,
+                                 @Param("text") String text,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end,
+                                 @Param("from") int from,
+                                 @Param("size") int size);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Публикуется при создании или изменении вещи; слушатели получают его после коммита транзакции.
+ */
+public record ItemSavedEvent(Long id, Long ownerId, String name, String description, Boolean available) {
+
+    public static ItemSavedEvent of(Item item) {
+        return new ItemSavedEvent(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                item.getAvailable());
+    }
+}
@@ -2,26 +2,47 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoPost;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto createItem(ItemDtoPost itemDto, Long ownerId);
 
+    // вещи читаются из items по мере записи; все или ничего — одной транзакцией
+    ItemImportResultDto importItems(Long ownerId, Iterator<? extends ItemDtoPost> items);
+
     ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId);
 
     Optional<Item> getItemById(Long itemId);
 
+    // вызывается внутри транзакции вызывающего, строка вещи блокируется до ее завершения
+    Optional<Item> getItemByIdForUpdate(Long itemId);
+
     ItemInfoDto getItemDtoById(Long itemId);
 
+    // свободные и занятые подтвержденными бронированиями слоты вещи в периоде [from, to)
+    ItemCalendarDto getItemCalendar(Long itemId, LocalDateTime from, LocalDateTime to);
+
     List<ItemInfoDto> getAllItemsByOwner(Long ownerId);
 
-    List<ItemDto> searchItems(String text);
+    // вещи владельца передаются в action по одному; из БД читаются пачками,
+    // соединение между пачками не удерживается
+    void streamItemsByOwner(Long ownerId, Consumer<? super ItemInfoDto> action);
+
+    List<ItemDto> searchItems(String text, int from, int size);
+
+    // вещи без подтвержденных бронирований, пересекающихся с [start, end); пустой text — пустой список
+    List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     CommentDto addComment(Long itemId, CommentDtoPost commentDtoPost, Long authorId);
 
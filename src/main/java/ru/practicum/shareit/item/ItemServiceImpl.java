@@ -1,42 +1,75 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.BookingMapper;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoPost;
+import ru.practicum.shareit.item.dto.ItemAccess;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "shareit.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class ItemServiceImpl implements ItemService {
+    static final int STREAM_CHUNK_SIZE = 500;
+    // кратно hibernate.jdbc.batch_size: порция записывается целыми пакетами
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
+    private final ItemSummaryRepository itemSummaryRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
     private final ItemMapper itemMapper;
-    private final BookingMapper bookingMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
 
     @Override
@@ -50,33 +83,86 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = itemMapper.toItemFromPost(itemDtoPost);
         item.setOwner(existingUser);
+        if (itemDtoPost.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(itemDtoPost.getRequestId())
+                                                 .orElseThrow(() -> new NotFoundException(
+                                                         "Запрос с id=" + itemDtoPost.getRequestId()
+                                                                 + " не существует")));
+        }
         Item savedItem = itemRepository.save(item);
+        itemSummaryRepository.save(new ItemSummary(savedItem));
+        eventPublisher.publishEvent(ItemSavedEvent.of(savedItem));
         return itemMapper.toItemDto(item);
     }
 
+    @Override
+    @Transactional
+    public ItemImportResultDto importItems(Long ownerId, Iterator<? extends ItemDtoPost> items) {
+        // владелец проверяется один раз на весь импорт
+        if (!userService.existsById(ownerId)) {
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
+        }
+
+        int imported = 0;
+        List<Item> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        while (items.hasNext()) {
+            ItemDtoPost itemDtoPost = items.next();
+            Item item = itemMapper.toItemFromPost(itemDtoPost);
+            if (itemDtoPost.getRequestId() != null) {
+                item.setRequest(itemRequestRepository.getReferenceById(itemDtoPost.getRequestId()));
+            }
+            chunk.add(item);
+            if (chunk.size() == IMPORT_CHUNK_SIZE || !items.hasNext()) {
+                checkRequestsExist(chunk);
+                itemRepository.insertAll(ownerId, chunk);
+                chunk.forEach(saved -> eventPublisher.publishEvent(ItemSavedEvent.of(saved)));
+                imported += chunk.size();
+                chunk.clear();
+            }
+        }
+        log.info("Импортировано {} вещей владельца {}", imported, ownerId);
+        return new ItemImportResultDto(imported);
+    }
+
+    // запросы, на которые отвечают вещи порции, проверяются одним запросом
+    private void checkRequestsExist(List<Item> items) {
+        Set<Long> requestIds = items.stream()
+                                    .map(Item::getRequest)
+                                    .filter(Objects::nonNull)
+                                    .map(ItemRequest::getId)
+                                    .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return;
+        }
+        requestIds.removeAll(itemRequestRepository.findIdsByIdIn(requestIds));
+        if (!requestIds.isEmpty()) {
+            throw new NotFoundException("Запрос с id=" + requestIds.iterator().next() + " не существует");
+        }
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
 
-        // Проверяем, что товар существует
-        Item existingItem = itemRepository.findById(itemId)
+        // Проверяем, что товар существует; существование и права пользователя — тем же запросом
+        ItemAccess access = itemRepository.findAccess(itemId, ownerId)
                                           .orElseThrow(() -> new NotFoundException(
                                                   "Товар с id=" + itemId + "не существует"));
 
-
-        // Проверяем, что владелец существует, без загрузки сущности
-        if (!userService.existsById(ownerId)) {
+        if (!access.userExists()) {
             throw new NotFoundException("Пользователь с id=" + ownerId + " не существует");
         }
         // Проверяем, что владелец совпадает
-        if (!Objects.equals(existingItem.getOwner().getId(), ownerId)) {
-            throw new RuntimeException("Только владелец может редактировать параметры вещи");
+        if (!access.owner()) {
+            throw new AccessDeniedException("Только владелец может редактировать параметры вещи");
         }
+        Item existingItem = access.item();
 
         // Обновляем только разрешенные поля
         itemMapper.updateItemFromDto(itemDto, existingItem);
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(ItemSavedEvent.of(updatedItem));
         return itemMapper.toItemDto(updatedItem);
     }
 
@@ -86,6 +172,12 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findById(itemId);
     }
 
+    @Override
+    @Transactional
+    public Optional<Item> getItemByIdForUpdate(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId);
+    }
+
     @Override
     public ItemInfoDto getItemDtoById(Long itemId) {
         Item existingItem = itemRepository.findById(itemId)
@@ -98,67 +190,170 @@ public class ItemServiceImpl implements ItemService {
         return itemInfoDto;
     }
 
+    // слоты строятся из таймлайна вещи в памяти; вещь читается через кэш второго уровня
+    @Override
+    public ItemCalendarDto getItemCalendar(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше окончания");
+        }
+        if (itemRepository.findById(itemId).isEmpty()) {
+            throw new NotFoundException("Товар с id=" + itemId + "не существует");
+        }
+
+        List<CalendarSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval booking : bookingTimelineIndex.timeline(itemId).overlapping(from, to)) {
+            LocalDateTime start = booking.start().isBefore(from) ? from : booking.start();
+            LocalDateTime end = booking.end().isAfter(to) ? to : booking.end();
+            if (start.isAfter(cursor)) {
+                slots.add(new CalendarSlotDto(cursor, start, true));
+            }
+            CalendarSlotDto previous = slots.isEmpty() ? null : slots.get(slots.size() - 1);
+            if (previous != null && !previous.isFree() && previous.getEnd().equals(start)) {
+                // бронирования встык — один занятый слот
+                previous.setEnd(end);
+            } else {
+                slots.add(new CalendarSlotDto(start, end, false));
+            }
+            cursor = end;
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new CalendarSlotDto(cursor, to, true));
+        }
+        return new ItemCalendarDto(itemId, from, to, slots);
+    }
 
     @Override
     public List<ItemInfoDto> getAllItemsByOwner(Long ownerId) {
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
+        List<ItemInfoDto> items = itemRepository.findInfoDtosByOwnerId(ownerId);
         if (items.isEmpty()) {
             return List.of();
         }
 
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> ownerBookings = bookingRepository.findBookingsByOwner(ownerId);
-
-        // сгруппировали бронирования по товарам
-        Map<Long, List<Booking>> bookingsByItem = ownerBookings
-                .stream()
-                .collect(Collectors.groupingBy(
-                        booking -> booking.getItem().getId()));
+        fillBookingsAndComments(items);
+        return items;
+    }
 
-        return items.stream()
-                    .map(item -> {
-                        List<Booking> itemBookings = bookingsByItem.getOrDefault(item.getId(), List.of());
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamItemsByOwner(Long ownerId, Consumer<? super ItemInfoDto> action) {
+        // вещи, их бронирования и комментарии читаются пачками по STREAM_CHUNK_SIZE вещей, каждая в своей
+        // короткой транзакции, и отдаются после ее коммита: пока медленный клиент читает ответ,
+        // соединение из пула не занято
+        Long afterId = 0L;
+        List<ItemInfoDto> chunk;
+        do {
+            Long after = afterId;
+            chunk = transactionTemplate.execute(status -> {
+                List<ItemInfoDto> items = itemRepository.findInfoDtosByOwnerIdAfter(ownerId, after,
+                        Limit.of(STREAM_CHUNK_SIZE));
+                if (!items.isEmpty()) {
+                    fillBookingsAndComments(items);
+                }
+                return items;
+            });
+            if (!chunk.isEmpty()) {
+                chunk.forEach(action);
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == STREAM_CHUNK_SIZE);
+    }
 
-                        BookingDtoShort lastBooking = findLastBooking(itemBookings, now);
-                        BookingDtoShort nextBooking = findNextBooking(itemBookings, now);
-                        List<CommentDto> comments = getCommentsByItem(item.getId());
+    // последнее и следующее бронирование и комментарии — по запросу на все вещи сразу
+    private void fillBookingsAndComments(List<ItemInfoDto> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                                  .map(ItemInfoDto::getId)
+                                  .collect(Collectors.toList());
+
+        // сводки вещей по первичному ключу; устаревшие (планировщик еще не пересчитал) и отсутствующие
+        // сводки заменяет таймлайн подтвержденных бронирований вещи
+        Map<Long, ItemSummary> summaries = itemSummaryRepository.findAllById(itemIds)
+                                                                .stream()
+                                                                .filter(summary -> summary.isFreshAt(now))
+                                                                .collect(Collectors.toMap(ItemSummary::getItemId,
+                                                                        Function.identity()));
+        List<Long> notSummarized = itemIds.stream()
+                                          .filter(itemId -> !summaries.containsKey(itemId))
+                                          .collect(Collectors.toList());
+        Map<Long, ItemTimeline> timelines = notSummarized.isEmpty()
+                ? Map.of()
+                : bookingTimelineIndex.timelines(notSummarized);
+
+        // комментарии ко всем вещам владельца одним запросом, сгруппированные по вещам
+        Map<Long, List<CommentDto>> commentsByItem = getCommentsByItems(itemIds);
+
+        for (ItemInfoDto item : items) {
+            ItemSummary summary = summaries.get(item.getId());
+            if (summary != null) {
+                item.setLastBooking(toBookingDtoShort(summary.getLastBooking()));
+                item.setNextBooking(toBookingDtoShort(summary.getNextBooking()));
+            } else {
+                ItemTimeline timeline = timelines.get(item.getId());
+                item.setLastBooking(findLastBooking(timeline, now));
+                item.setNextBooking(findNextBooking(timeline, now));
+            }
+            item.setComments(commentsByItem.getOrDefault(item.getId(), List.of()));
+        }
+    }
 
-                        ItemInfoDto itemInfoDto = itemMapper.toItemInfoDto(item, lastBooking, nextBooking);
-                        itemInfoDto.setComments(comments);
-                        return itemInfoDto;
-                    })
-                    .collect(Collectors.toList());
+    private BookingDtoShort toBookingDtoShort(BookingInterval interval) {
+        return interval != null ? interval.toBookingDtoShort() : null;
     }
 
     // метод для поиска последнего бронирования
-    private BookingDtoShort findLastBooking(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                       .filter(booking -> booking.getEnd().isBefore(now))
-                       .max(Comparator.comparing(Booking::getEnd))
-                       .map(bookingMapper::toBookingDtoShort)
+    private BookingDtoShort findLastBooking(ItemTimeline timeline, LocalDateTime now) {
+        return timeline.lastEndedBefore(now)
+                       .map(BookingInterval::toBookingDtoShort)
                        .orElse(null);
     }
 
     // метод для поиска следующего бронирования
-    private BookingDtoShort findNextBooking(List<Booking> bookings, LocalDateTime now) {
-        return bookings.stream()
-                       .filter(booking -> booking.getStart().isAfter(now))
-                       .min(Comparator.comparing(Booking::getStart))
-                       .map(bookingMapper::toBookingDtoShort)
+    private BookingDtoShort findNextBooking(ItemTimeline timeline, LocalDateTime now) {
+        return timeline.nextStartingAfter(now)
+                       .map(BookingInterval::toBookingDtoShort)
                        .orElse(null);
     }
 
     @Override
-    public List<ItemDto> searchItems(String text) {
+    public List<ItemDto> searchItems(String text, int from, int size) {
         if (text == null || text.isBlank()) {
             return List.of();
         }
-        String searchText = text.toLowerCase();
-        List<Item> foundItems = itemRepository.searchAvailableItems(searchText);
-        return foundItems.stream()
-                         .map(itemMapper::toItemDto)
-                         .collect(Collectors.toList());
+        String searchText = text.toLowerCase(Locale.ROOT);
+        return findDtosInOrder(itemSearchEngine.search(searchText, from, size));
+    }
+
+    @Override
+    public List<ItemDto> searchFreeItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (start == null || end == null) {
+            throw new ValidationException("Нужно указать и начало, и окончание периода");
+        }
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало периода должно быть раньше окончания");
+        }
+        // как и в searchItems: без текста подходила бы любая вещь, и движок обходил бы весь каталог
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String searchText = text.toLowerCase(Locale.ROOT);
+        return findDtosInOrder(itemSearchEngine.searchFree(searchText, start, end, from, size));
+    }
+
+    private List<ItemDto> findDtosInOrder(List<Long> foundIds) {
+        if (foundIds.isEmpty()) {
+            return List.of();
+        }
+
+        // движок возвращает id по убыванию релевантности, IN порядок не сохраняет
+        Map<Long, ItemDto> foundItems = itemRepository.findDtosByIdIn(foundIds)
+                                                      .stream()
+                                                      .collect(Collectors.toMap(ItemDto::getId,
+                                                              Function.identity()));
+        return foundIds.stream()
+                       .map(foundItems::get)
+                       .filter(Objects::nonNull)
+                       .collect(Collectors.toList());
     }
 
     @Override
@@ -173,10 +368,9 @@ public class ItemServiceImpl implements ItemService {
         Item item = getItemById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не существует"));
 
-        // Проверяем, что пользователь брал вещь в аренду
-        boolean hasBooked = bookingRepository.findPastByBookerId(authorId, LocalDateTime.now())
-                                             .stream()
-                                             .anyMatch(booking -> booking.getItem().getId().equals(itemId));
+        // Проверяем, что пользователь брал вещь в аренду (подтвержденное бронирование уже завершилось)
+        boolean hasBooked = bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(authorId, itemId,
+                BookingStatus.APPROVED, LocalDateTime.now());
 
         if (!hasBooked) {
             throw new ValidationException("Пользователь не брал вещь в аренду или аренда еще не завершена");
@@ -195,6 +389,14 @@ public class ItemServiceImpl implements ItemService {
                        .collect(Collectors.toList());
     }
 
+    private Map<Long, List<CommentDto>> getCommentsByItems(List<Long> itemIds) {
+        return commentRepository.findByItemIdIn(itemIds)
+                                .stream()
+                                .collect(Collectors.groupingBy(
+                                        comment -> comment.getItem().getId(),
+                                        Collectors.mapping(itemMapper::toCommentDto, Collectors.toList())));
+    }
+
     @Override
     public List<CommentDto> getCommentsByOwner(Long ownerId) {
         List<Comment> comments = commentRepository.findByItemOwnerId(ownerId);
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+
+    // пересчеты сводки одной вещи идут по очереди: каждый видит то, что закоммитил предыдущий.
+    // Порядок по id — параллельные пакетные пересчеты берут блокировки в одном порядке
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemSummary s WHERE s.itemId IN :itemIds ORDER BY s.itemId")
+    List<ItemSummary> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    // устаревшие к моменту сводки порциями по возрастанию id вещи
+    @Query("SELECT s.itemId FROM ItemSummary s " +
+            "WHERE s.refreshAt <= :moment AND s.itemId > :afterItemId " +
+            "ORDER BY s.itemId")
+    List<Long> findItemIdsToRefresh(@Param("moment") LocalDateTime moment,
+                                    @Param("afterItemId") Long afterItemId,
+                                    Limit limit);
+
+    // сводки для вещей, созданных до их появления; refresh_at в прошлом — их пересчитает планировщик
+    @Modifying
+    @Query(value = "INSERT INTO item_summaries (item_id, refresh_at) " +
+            "SELECT i.id, :moment FROM items i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM item_summaries s WHERE s.item_id = i.id)", nativeQuery = true)
+    int insertMissing(@Param("moment") LocalDateTime moment);
+}
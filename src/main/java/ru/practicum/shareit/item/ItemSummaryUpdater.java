@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Поддерживает сводки вещей (ItemSummary) в актуальном состоянии.
+ * <p>
+ * Сводка пересчитывается в транзакции создания бронирования, смены его статуса или удаления арендатора,
+ * перед ее коммитом (один раз на вещь, даже при пакетной смене статусов):
+ * изменение и сводка фиксируются атомарно, а отдельная транзакция после коммита держала бы
+ * второе соединение из пула, пока первое еще не возвращено. Планировщик пересчитывает сводки,
+ * у которых прошел refreshAt: следующее бронирование началось или текущее закончилось.
+ * Каждый пересчет — три индексных запроса по бронированиям одной вещи, независимо от глубины истории.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSummaryUpdater {
+    private static final int ROLL_FORWARD_BATCH_SIZE = 500;
+
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object pendingItemIdsKey = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createMissingSummaries() {
+        int created = itemSummaryRepository.insertMissing(LocalDateTime.now());
+        if (created > 0) {
+            log.info("Созданы сводки для {} вещей, их заполнит планировщик", created);
+        }
+    }
+
+    // синхронно в транзакции изменения: вещь запоминается, пересчет — перед коммитом
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingItemIds().add(event.itemId());
+        }
+    }
+
+    // бронирования удаляемого пользователя удаляет каскад в базе, без событий о них: вещи, которые он бронировал,
+    // запоминаются до удаления, а пересчет перед коммитом видит их уже без этих бронирований
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingItemIds().addAll(bookingRepository.findApprovedItemIdsByBookerId(event.userId()));
+        }
+    }
+
+    // "следующее" бронирование становится текущим, текущее — "последним"
+    @Scheduled(fixedDelayString = "${shareit.item-summaries.roll-forward-delay}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        Long afterItemId = 0L;
+        List<Long> itemIds;
+        do {
+            itemIds = itemSummaryRepository.findItemIdsToRefresh(now, afterItemId, Limit.of(ROLL_FORWARD_BATCH_SIZE));
+            if (!itemIds.isEmpty()) {
+                List<Long> batch = itemIds;
+                transactionTemplate.executeWithoutResult(status -> refresh(batch, now));
+                afterItemId = itemIds.get(itemIds.size() - 1);
+            }
+        } while (itemIds.size() == ROLL_FORWARD_BATCH_SIZE);
+    }
+
+    // первое изменение в транзакции регистрирует пересчет перед коммитом: каждая вещь пересчитывается
+    // один раз, сколько бы ее бронирований транзакция ни изменила
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingItemIds() {
+        Set<Long> itemIds = (Set<Long>) TransactionSynchronizationManager.getResource(pendingItemIdsKey);
+        if (itemIds == null) {
+            Set<Long> pending = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(pendingItemIdsKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(pending, LocalDateTime.now());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(pendingItemIdsKey);
+                }
+            });
+            itemIds = pending;
+        }
+        return itemIds;
+    }
+
+    // сводки блокируются одним запросом в порядке id вещей, измененные сводки уходят в базу пакетом при коммите.
+    // Сводки нет — вещь удалена или ее сводку еще не создали (тогда список владельца читает таймлайн)
+    private void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        for (ItemSummary summary : itemSummaryRepository.findAllByIdForUpdate(itemIds)) {
+            Long itemId = summary.getItemId();
+            BookingInterval last = first(bookingRepository.findApprovedEndedBefore(itemId, now, Limit.of(1)));
+            BookingInterval next = first(bookingRepository.findApprovedStartingAfter(itemId, now, Limit.of(1)));
+            LocalDateTime nextEnd = bookingRepository.findFirstApprovedEndNotBefore(itemId, now).orElse(null);
+
+            summary.setLastBooking(last);
+            summary.setNextBooking(next);
+            summary.setRefreshAt(Stream.of(next != null ? next.start() : null, nextEnd)
+                                       .filter(Objects::nonNull)
+                                       .min(LocalDateTime::compareTo)
+                                       .orElse(null));
+        }
+    }
+
+    private static BookingInterval first(List<BookingInterval> intervals) {
+        return intervals.isEmpty() ? null : intervals.get(0);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// полуинтервал [start, end) календаря вещи: свободен или занят подтвержденными бронированиями
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarSlotDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private boolean free;
+}
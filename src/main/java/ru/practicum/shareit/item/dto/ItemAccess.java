@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Вещь вместе с правами пользователя на нее — одной строкой, без отдельного запроса на существование пользователя.
+ *
+ * @param owner      пользователь — владелец вещи
+ * @param userExists пользователь существует (при owner — всегда true)
+ */
+public record ItemAccess(Item item, boolean owner, boolean userExists) {
+}
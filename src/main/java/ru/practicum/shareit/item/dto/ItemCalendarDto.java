@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// слоты идут подряд без промежутков и покрывают весь запрошенный период [from, to)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemCalendarDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<CalendarSlotDto> slots;
+}
@@ -16,4 +16,17 @@ public class ItemDto {
     private Boolean available;
     private Long requestId;
     private List<CommentDto> comments;
+
+    // проекция строки items (SELECT new ...), остальные поля заполняются отдельно
+    public ItemDto(Long id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+    }
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available);
+        this.requestId = requestId;
+    }
 }
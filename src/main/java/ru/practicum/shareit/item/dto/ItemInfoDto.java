@@ -19,4 +19,13 @@ public class ItemInfoDto {
     private BookingDtoShort nextBooking;
     private Long requestId;
     private List<CommentDto> comments;
+
+    // проекция строки items (SELECT new ...), остальные поля заполняются отдельно
+    public ItemInfoDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.requestId = requestId;
+    }
 }
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.timeline.BookingInterval;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сводка вещи для списка вещей владельца: последнее и следующее подтвержденное бронирование.
+ * <p>
+ * Пересчитывается в транзакции, изменившей бронирования вещи, перед ее коммитом (см. ItemSummaryUpdater),
+ * и планировщиком, когда проходит refreshAt — ближайший момент, в который сводка устаревает сама по себе
+ * (начинается следующее бронирование или заканчивается текущее). null — без новых бронирований сводка не изменится.
+ */
+@Entity
+@Table(name = "item_summaries", indexes = @Index(name = "idx_item_summaries_refresh_at", columnList = "refresh_at"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ItemSummary {
+    @Id
+    private Long itemId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    @ToString.Exclude
+    private Item item;
+
+    @Embedded
+    @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id"))
+    @AttributeOverride(name = "start", column = @Column(name = "last_start"))
+    @AttributeOverride(name = "end", column = @Column(name = "last_end"))
+    @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id"))
+    private BookingInterval lastBooking;
+
+    @Embedded
+    @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id"))
+    @AttributeOverride(name = "start", column = @Column(name = "next_start"))
+    @AttributeOverride(name = "end", column = @Column(name = "next_end"))
+    @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id"))
+    private BookingInterval nextBooking;
+
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public ItemSummary(Item item) {
+        this.item = item;
+    }
+
+    public boolean isFreshAt(LocalDateTime moment) {
+        return refreshAt == null || refreshAt.isAfter(moment);
+    }
+}
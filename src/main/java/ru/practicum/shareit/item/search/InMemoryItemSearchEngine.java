@@ -0,0 +1,337 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных вещей.
+ * <p>
+ * Сохраняет семантику прежнего LIKE '%text%' (буквальная подстрока без подстановочных символов): кандидаты
+ * запроса от трех символов — пересечение списков по всем его триграммам, затем подстрока проверяется точно;
+ * запрос короче триграммы проверяется по всем документам, как и LIKE без индекса. Списки вещей триграмм —
+ * отсортированные массивы long: один long на вхождение вместо узла HashSet с упакованным id.
+ * Обычный поиск выбирает from + size лучших совпадений без сортировки всех.
+ * Индекс строится при старте приложения и обновляется после коммита создания или изменения вещи
+ * и удаления ее владельца (вещи удаляет каскад в базе).
+ * Поиск свободных в окне вещей проверяет найденные вещи по их таймлайнам подтвержденных бронирований
+ * (BookingTimelineIndex) порциями в порядке релевантности, пока не наберется страница.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    private static final int GRAM_LENGTH = 3;
+    private static final int BOOTSTRAP_BATCH_SIZE = 1000;
+    private static final int TIMELINE_BATCH_SIZE = 1000;
+    // лучшие совпадения первыми, при равной релевантности — по id
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::score)
+                                                                .reversed()
+                                                                .thenComparing(Hit::id);
+
+    private final ItemRepository itemRepository;
+    private final BookingTimelineIndex bookingTimelineIndex;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Set<Long>> documentsByOwner = new HashMap<>();
+
+    // индекс заполняется до старта веб-сервера, чтобы первые запросы не видели пустой каталог
+    @Override
+    public void afterSingletonsInstantiated() {
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(lastId,
+                    Limit.of(BOOTSTRAP_BATCH_SIZE));
+            for (Item item : batch) {
+                put(new Document(item.getId(), item.getOwner().getId(), normalize(item.getName()),
+                        normalize(item.getDescription())));
+                lastId = item.getId();
+            }
+        } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        log.info("Поисковый индекс вещей построен: {} документов", documents.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (Boolean.TRUE.equals(event.available())) {
+            put(new Document(event.id(), event.ownerId(), normalize(event.name()), normalize(event.description())));
+        } else {
+            remove(event.id());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> owned = documentsByOwner.get(event.userId());
+            if (owned != null) {
+                List.copyOf(owned).forEach(this::removeUnderLock);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String query = normalize(text);
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        // в куче не больше limit совпадений, в голове — худшее из них
+        PriorityQueue<Hit> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        lock.readLock().lock();
+        try {
+            for (Document document : candidates(query)) {
+                if (document.matches(query)) {
+                    top.add(new Hit(document.id(), document.score(query)));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.stream()
+                  .sorted(BEST_FIRST)
+                  .skip(from)
+                  .map(Hit::id)
+                  .toList();
+    }
+
+    // таймлайны читаются вне блокировки индекса: незагруженные подгружаются из БД одним запросом на порцию
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Long> ranked = rank(normalize(text));
+        List<Long> found = new ArrayList<>();
+        int skipped = 0;
+        for (int i = 0; i < ranked.size() && found.size() < size; i += TIMELINE_BATCH_SIZE) {
+            List<Long> batch = ranked.subList(i, Math.min(i + TIMELINE_BATCH_SIZE, ranked.size()));
+            Map<Long, ItemTimeline> timelines = bookingTimelineIndex.timelines(batch);
+            for (Long id : batch) {
+                if (found.size() == size) {
+                    break;
+                }
+                if (!timelines.get(id).isFree(start, end)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    found.add(id);
+                }
+            }
+        }
+        return found;
+    }
+
+    // id всех подходящих документов по убыванию релевантности
+    private List<Long> rank(String query) {
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                                    .filter(document -> document.matches(query))
+                                    .map(document -> new Hit(document.id(), document.score(query)))
+                                    .sorted(BEST_FIRST)
+                                    .map(Hit::id)
+                                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // вызывается под читающей блокировкой; подстрока в кандидатах еще не проверена
+    private Collection<Document> candidates(String query) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        if (query.length() < GRAM_LENGTH) {
+            return documents.values();
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : gramsOf(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        // обходим самый короткий список и проверяем вхождение в остальные двоичным поиском
+        PostingList shortest = lists.get(0);
+        List<Document> found = new ArrayList<>();
+        for (int i = 0; i < shortest.size(); i++) {
+            long id = shortest.get(i);
+            if (lists.stream().allMatch(list -> list.contains(id))) {
+                found.add(documents.get(id));
+            }
+        }
+        return found;
+    }
+
+    private void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(document.id());
+            documents.put(document.id(), document);
+            documentsByOwner.computeIfAbsent(document.ownerId(), key -> new HashSet<>()).add(document.id());
+            for (String gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(document.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnderLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUnderLock(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        Set<Long> owned = documentsByOwner.get(previous.ownerId());
+        owned.remove(id);
+        if (owned.isEmpty()) {
+            documentsByOwner.remove(previous.ownerId());
+        }
+        for (String gram : previous.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // триграммы текста: ключи индекса документа; у вещи с вхождением запроса есть все триграммы запроса
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private record Hit(Long id, int score) {
+    }
+
+    private record Document(Long id, Long ownerId, String name, String description) {
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(name);
+            grams.addAll(gramsOf(description));
+            return grams;
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        // совпадение в названии важнее совпадения в описании, совпадение с начала слова — важнее середины
+        int score(String query) {
+            int score = 0;
+            if (name.equals(query)) {
+                score += 8;
+            }
+            if (name.startsWith(query) || name.contains(" " + query)) {
+                score += 4;
+            }
+            if (name.contains(query)) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+
+    // возрастающие id вещей одной триграммы; id новых вещей растут, так что вставка обычно дописывает в конец
+    private static final class PostingList {
+        private long[] ids = new long[2];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 0 && size * 4 <= ids.length) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
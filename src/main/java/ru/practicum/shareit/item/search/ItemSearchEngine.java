@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск доступных для аренды вещей по тексту в названии или описании.
+ * Реализация выбирается свойством shareit.search.engine: memory (по умолчанию) или postgres.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * @param text  поисковая строка в нижнем регистре
+     * @param from  сколько первых результатов пропустить
+     * @param size  максимальное число результатов
+     * @return id найденных вещей в порядке убывания релевантности
+     */
+    List<Long> search(String text, int from, int size);
+
+    /**
+     * Тот же поиск среди вещей, у которых нет подтвержденных бронирований, пересекающихся с [start, end).
+     * Пустую строку сервис отсекает сам, как и в {@link #search}.
+     *
+     * @return id найденных свободных вещей в порядке убывания релевантности
+     */
+    List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск средствами Postgres: подстрока ищется по триграммным GIN-индексам (pg_trgm),
+ * ранжирование — ts_rank по tsvector и similarity по названию. Занятость вещи в окне проверяется по GiST-индексу
+ * ограничения ex_bookings_item_period. Индексы создаются в schema-postgresql.sql.
+ * Запрос ищется буквально, как в InMemoryItemSearchEngine: \, % и _ в нем экранируются.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.searchAvailableItemIds(likePattern(text), text, from, size);
+    }
+
+    @Override
+    public List<Long> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFreeItemIds(likePattern(text), text, start, end, from, size);
+    }
+
+    // '%text%' для LIKE ... ESCAPE '\': символы шаблона из запроса совпадают только сами с собой
+    static String likePattern(String text) {
+        return "%" + text.replace("\\", "\\\\")
+                         .replace("%", "\\%")
+                         .replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.common.annotation.ValueResolver;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+
+import java.util.Locale;
+
+/**
+ * Значение тега state: нормализованное имя {@link BookingStateParam}.
+ * Произвольная строка из запроса не попадает в тег, чтобы не плодить серии метрик.
+ */
+@Component
+public class BookingStateTagResolver implements ValueResolver {
+
+    @Override
+    public String resolve(Object parameter) {
+        return parameter != null && BookingStateParam.isValid(parameter.toString())
+                ? parameter.toString().toUpperCase(Locale.ROOT)
+                : "UNKNOWN";
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Таймеры сервисов (@Timed + @MeterTag) и подсчет SQL-запросов.
+ * Статистика Hibernate экспортируется автоконфигурацией Spring Boot (hibernate-micrometer).
+ */
+@Configuration
+public class MetricsConfig {
+
+    // резолверы @MeterTag — бины контекста
+    @Bean
+    public MeterTagAnnotationHandler meterTagAnnotationHandler(BeanFactory beanFactory) {
+        return new MeterTagAnnotationHandler(beanFactory::getBean, beanFactory::getBean);
+    }
+
+    // не перекрывает инспектор, заданный явно в spring.jpa.properties
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Метрика shareit.http.sql.statements — число SQL-запросов на один HTTP-запрос.
+ * Рост среднего или максимума по uri — признак N+1.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlCountFilter extends OncePerRequestFilter {
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sqlStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementCounter.stop();
+            // шаблон пути, а не сам путь: /items/{itemId} — одна серия метрики на все вещи
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("shareit.http.sql.statements")
+                               .description("SQL statements executed per HTTP request")
+                               .baseUnit("statements")
+                               .tag("method", request.getMethod())
+                               .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                               .publishPercentileHistogram()
+                               .register(meterRegistry)
+                               .record(statements);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Считает SQL-запросы Hibernate, выполненные текущим потоком между {@link #start()} и {@link #stop()}.
+ * Запрос обрабатывается целиком в одном потоке (в том числе виртуальном), поэтому хватает ThreadLocal.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        COUNTER.set(new int[1]);
+    }
+
+    // число запросов с момента start(); 0, если подсчет не запускался
+    public int stop() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : 0;
+    }
+}
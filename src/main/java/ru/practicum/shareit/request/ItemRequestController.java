@@ -1,12 +1,71 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Slf4j
 @RestController
+@Validated
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    // курсор следующей страницы отдается в заголовке, тело ответа остается массивом запросов
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_PAGE_SIZE = "20";
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto createRequest(@Valid @RequestBody ItemRequestDtoPost itemRequestDtoPost,
+                                        @RequestHeader("X-Sharer-User-Id") Long requestorId) {
+        log.info("Post /requests {} by user {}", itemRequestDtoPost, requestorId);
+        return itemRequestService.createRequest(itemRequestDtoPost, requestorId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwnRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
+        log.info("Get /requests by user {}", requestorId);
+        return itemRequestService.getOwnRequests(requestorId);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getOtherRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) Integer size) {
+
+        log.info("Get /requests/all?cursor={}&size={} by user {}", cursor, size, userId);
+        ItemRequestPageDto page = itemRequestService.getOtherRequests(userId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return response.body(page.getRequests());
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getRequest(@PathVariable Long requestId,
+                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get /requests/{} by user {}", requestId, userId);
+        return itemRequestService.getRequestById(requestId, userId);
+    }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+@Mapper(componentModel = "spring")
+public interface ItemRequestMapper {
+
+    // ItemRequest -> ItemRequestDto вместе с ответами (items должны быть загружены)
+    ItemRequestDto toItemRequestDto(ItemRequest itemRequest);
+
+    // id владельца берется из внешнего ключа, сам владелец не загружается
+    @Mapping(target = "ownerId", source = "owner.id")
+    ItemAnswerDto toItemAnswerDto(Item item);
+
+    // ItemRequestDtoPost -> ItemRequest
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    @Mapping(target = "created", expression = "java(java.time.LocalDateTime.now())")
+    ItemRequest toItemRequest(ItemRequestDtoPost itemRequestDtoPost, User requestor);
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    // свои запросы вместе с ответами одним запросом (индекс requestor_id, created, id)
+    @Query("SELECT r FROM ItemRequest r " +
+            "LEFT JOIN FETCH r.items " +
+            "WHERE r.requestor.id = :requestorId " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findWithItemsByRequestorId(@Param("requestorId") Long requestorId);
+
+    @Query("SELECT r FROM ItemRequest r " +
+            "LEFT JOIN FETCH r.items " +
+            "WHERE r.id = :requestId")
+    Optional<ItemRequest> findWithItemsById(@Param("requestId") Long requestId);
+
+    // лента чужих запросов: keyset строго после (created, id) по индексу (created, id).
+    // created <= :created дублирует условие курсора, чтобы оно читалось как диапазон индекса
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "FROM ItemRequest r " +
+            "WHERE r.requestor.id <> :userId " +
+            "AND r.created <= :created " +
+            "AND (r.created < :created OR r.id < :id) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestDto> findFeedPage(@Param("userId") Long userId,
+                                      @Param("created") LocalDateTime created,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto createRequest(ItemRequestDtoPost itemRequestDtoPost, Long requestorId);
+
+    // свои запросы от новых к старым, с ответами
+    List<ItemRequestDto> getOwnRequests(Long requestorId);
+
+    // чужие запросы от новых к старым, без ответов; cursor — из next предыдущей страницы или null
+    ItemRequestPageDto getOtherRequests(Long userId, String cursor, int size);
+
+    ItemRequestDto getRequestById(Long requestId, Long userId);
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Timed(value = "shareit.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserService userService;
+    private final ItemRequestMapper itemRequestMapper;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(ItemRequestDtoPost itemRequestDtoPost, Long requestorId) {
+        User requestor = userService.getUserById(requestorId)
+                                    .orElseThrow(() -> new NotFoundException(
+                                            "Пользователь с id=" + requestorId + " не существует"));
+
+        ItemRequest savedRequest = itemRequestRepository.save(
+                itemRequestMapper.toItemRequest(itemRequestDtoPost, requestor));
+        log.info("Создан запрос id={} пользователя {}", savedRequest.getId(), requestorId);
+        return itemRequestMapper.toItemRequestDto(savedRequest);
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(Long requestorId) {
+        checkUserExists(requestorId);
+        return itemRequestRepository.findWithItemsByRequestorId(requestorId).stream()
+                                    .map(itemRequestMapper::toItemRequestDto)
+                                    .toList();
+    }
+
+    @Override
+    public ItemRequestPageDto getOtherRequests(Long userId, String cursor, int size) {
+        checkUserExists(userId);
+        ItemRequestCursor after = ItemRequestCursor.decode(cursor);
+        List<ItemRequestDto> requests = itemRequestRepository.findFeedPage(userId, after.created(), after.id(),
+                Limit.of(size + 1));
+
+        // лишняя (size + 1)-я строка означает, что есть следующая страница
+        List<ItemRequestDto> page = requests.size() > size ? requests.subList(0, size) : requests;
+        String next = requests.size() > size
+                ? ItemRequestCursor.of(page.get(page.size() - 1)).encode()
+                : null;
+        return new ItemRequestPageDto(page, next);
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(Long requestId, Long userId) {
+        checkUserExists(userId);
+        return itemRequestRepository.findWithItemsById(requestId)
+                                    .map(itemRequestMapper::toItemRequestDto)
+                                    .orElseThrow(() -> new NotFoundException(
+                                            "Запрос с id=" + requestId + " не существует"));
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userService.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не существует");
+        }
+    }
+}
@@ -1,7 +1,59 @@
 package ru.practicum.shareit.request.model;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+// индексы продублированы в schema.sql — на случай, если схему создает Hibernate (ddl-auto)
+@Table(name = "item_requests", indexes = {
+        @Index(name = "idx_item_requests_requestor_created", columnList = "requestor_id, created, id"),
+        @Index(name = "idx_item_requests_created", columnList = "created, id")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
 public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 1000)
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requestor_id", nullable = false)
+    @ToString.Exclude
+    private User requestor;
+
+    @Column(nullable = false)
+    private LocalDateTime created;
+
+    // вещи, добавленные в ответ на запрос; загружаются JOIN FETCH-запросами ItemRequestRepository
+    @OneToMany(mappedBy = "request")
+    @OrderBy("id")
+    @ToString.Exclude
+    private List<Item> items = new ArrayList<>();
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.user;
+
+/**
+ * Публикуется в транзакции удаления пользователя до самого удаления: синхронные слушатели еще видят его данные,
+ * а слушатели @TransactionalEventListener получают событие после коммита.
+ * Вещи пользователя вместе с их бронированиями и комментариями удаляет каскад в базе, мимо Hibernate,
+ * поэтому отдельных событий о них нет.
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationExceptionDuplicate;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -17,12 +26,16 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Timed(value = "shareit.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.UNKNOWN_USER_IDS, key = "#result.id")
     public UserDto createUser(User user) {
         // Проверка уникальности email
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -81,13 +94,27 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-
+        // событие публикуется до удаления: синхронные слушатели еще видят бронирования пользователя.
+        // Удаление сразу уходит в базу, чтобы пересчет сводок перед коммитом видел результат каскада
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         userRepository.deleteById(userId);
+        userRepository.flush();
+
+        // вещи пользователя удаляет каскад в базе, мимо Hibernate, — их записи в кэше второго уровня
+        // сбрасываются после коммита, чтобы параллельное чтение не положило туда удаляемую вещь заново
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Item.class);
+            }
+        });
     }
 
+    // поиск по первичному ключу обслуживает кэш второго уровня, а неизвестные id — отрицательный кэш
     @Override
+    @Cacheable(cacheNames = CacheConfig.UNKNOWN_USER_IDS, unless = "#result")
     public boolean existsById(Long userId) {
 
-        return userRepository.existsById(userId);
+        return userRepository.findById(userId).isPresent();
     }
 }
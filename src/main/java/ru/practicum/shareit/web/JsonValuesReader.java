@@ -0,0 +1,76 @@
+package ru.practicum.shareit.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Читает из потока JSON-массив или NDJSON (application/x-ndjson) по одному объекту за раз:
+ * тело запроса целиком в памяти не держится.
+ * Каждый объект проверяется Bean Validation; ошибка разбора или проверки — ValidationException с номером элемента.
+ */
+public class JsonValuesReader<T> implements Iterator<T>, Closeable {
+    private final MappingIterator<T> values;
+    private final Validator validator;
+    private int index;
+
+    // корневой массив Jackson разворачивает сам, NDJSON читается как последовательность корневых значений
+    public JsonValuesReader(ObjectMapper objectMapper, Class<T> type, InputStream in, Validator validator)
+            throws IOException {
+        this.values = objectMapper.readerFor(type).readValues(in);
+        this.validator = validator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return values.hasNextValue();
+        } catch (JsonProcessingException e) {
+            throw invalid(index + 1, e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        index++;
+        T value;
+        try {
+            value = values.nextValue();
+        } catch (JsonProcessingException e) {
+            throw invalid(index, e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> violation = violations.iterator().next();
+            throw invalid(index, violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        values.close();
+    }
+
+    private static ValidationException invalid(int index, String message) {
+        return new ValidationException("Элемент " + index + ": " + message);
+    }
+}
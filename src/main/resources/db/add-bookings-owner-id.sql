@@ -0,0 +1,28 @@
+-- Колонка bookings.owner_id (копия items.owner_id) для существующей базы Postgres, см. schema.sql.
+-- Выполняется вручную один раз при остановленном приложении: psql -d shareit -f add-bookings-owner-id.sql
+-- Повторный запуск безопасен: колонка, ограничение и индексы создаются только при отсутствии.
+
+BEGIN;
+
+LOCK TABLE bookings IN EXCLUSIVE MODE;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE bookings b
+SET owner_id = i.owner_id
+FROM items i
+WHERE i.id = b.item_id
+  AND b.owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS FK_BOOKING_ON_OWNER;
+ALTER TABLE bookings ADD CONSTRAINT FK_BOOKING_ON_OWNER
+    FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC, id DESC);
+-- списки владельца больше не ходят через вещи
+DROP INDEX IF EXISTS idx_bookings_item_start;
+
+COMMIT;
@@ -0,0 +1,25 @@
+-- Перевод существующей базы Postgres с IDENTITY-колонок на последовательности (см. schema.sql).
+-- Выполняется вручную один раз при остановленном приложении: psql -d shareit -f migrate-ids-to-sequences.sql
+-- Повторный запуск безопасен: колонки без IDENTITY пропускаются, последовательности выставляются заново.
+-- Последовательность ставится на max(id) + 1 с is_called = false: при pooled-lo первый блок id начинается с него.
+
+BEGIN;
+
+LOCK TABLE users, items, bookings, comments IN EXCLUSIVE MODE;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 1, false) FROM users;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 1, false) FROM items;
+SELECT setval('bookings_seq', COALESCE(MAX(id), 0) + 1, false) FROM bookings;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 1, false) FROM comments;
+
+COMMIT;
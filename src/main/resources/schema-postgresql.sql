@@ -0,0 +1,22 @@
+-- Выполняется после schema.sql, только на Postgres (spring.sql.init.platform=postgresql)
+
+-- поиск вещей (PostgresItemSearchEngine): LIKE '%text%' по триграммным индексам
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops) WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops) WHERE is_available;
+
+-- бронирования одной вещи в статусах WAITING/APPROVED не пересекаются по времени.
+-- Основная защита — блокировка строки вещи в BookingServiceImpl.createBooking, ограничение страхует прямые вставки
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- у ADD CONSTRAINT нет IF NOT EXISTS, поэтому проверка по pg_constraint. Тело DO — в одинарных кавычках,
+-- а не в $$: скрипты spring.sql.init делятся на операторы по ';' и знают только обычные кавычки
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status IN (''WAITING'', ''APPROVED''));
+    END IF;
+END';
@@ -1,40 +1,69 @@
+DROP TABLE IF EXISTS item_summaries;
 DROP TABLE IF EXISTS comments;
 DROP TABLE IF EXISTS bookings;
 DROP TABLE IF EXISTS items;
+DROP TABLE IF EXISTS item_requests;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS item_requests_seq;
+
+-- id всех сущностей выдает Hibernate блоками по 50 (pooled-lo): значение последовательности — начало блока.
+-- Вставки откладываются до flush и уходят пакетами JDBC. Перевод существующей базы — db/migrate-ids-to-sequences.sql
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
 
 
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT pk_user PRIMARY KEY (id),
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
+CREATE TABLE IF NOT EXISTS item_requests (
+  id BIGINT NOT NULL,
+  description VARCHAR(1000) NOT NULL,
+  requestor_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_item_request PRIMARY KEY (id),
+  CONSTRAINT FK_ITEM_REQUEST_ON_REQUESTOR FOREIGN KEY (requestor_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(1000) NOT NULL,
   is_available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
+  request_id BIGINT,
   CONSTRAINT pk_item PRIMARY KEY (id),
-  CONSTRAINT FK_ITEM_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
+  CONSTRAINT FK_ITEM_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
+  CONSTRAINT FK_ITEM_ON_REQUEST FOREIGN KEY (request_id) REFERENCES item_requests (id) ON DELETE SET NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status VARCHAR(20) NOT NULL,
+  -- копия items.owner_id для списков владельца без соединения с items
+  owner_id BIGINT NOT NULL,
   CONSTRAINT pk_booking PRIMARY KEY (id),
   CONSTRAINT FK_BOOKING_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
-  CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+  CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+  CONSTRAINT FK_BOOKING_ON_OWNER FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   text VARCHAR(1000) NOT NULL,
   item_id BIGINT NOT NULL,
   author_id BIGINT NOT NULL,
@@ -42,4 +71,55 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT FK_COMMENT_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
   CONSTRAINT FK_COMMENT_ON_AUTHOR FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- сводка вещи для списка вещей владельца (ItemSummary): последнее и следующее подтвержденное бронирование
+CREATE TABLE IF NOT EXISTS item_summaries (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_start TIMESTAMP WITHOUT TIME ZONE,
+  last_end TIMESTAMP WITHOUT TIME ZONE,
+  last_booker_id BIGINT,
+  next_booking_id BIGINT,
+  next_start TIMESTAMP WITHOUT TIME ZONE,
+  next_end TIMESTAMP WITHOUT TIME ZONE,
+  next_booker_id BIGINT,
+  refresh_at TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_summary PRIMARY KEY (item_id),
+  CONSTRAINT FK_ITEM_SUMMARY_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+-- Индексы под запросы BookingRepository / ItemRepository / CommentRepository.
+-- Бронирования отдаются в порядке (start_date DESC, id DESC), поэтому id замыкает составные индексы
+-- и keyset-пагинация читает индекс без сортировки.
+
+-- вещи владельца: ItemRepository.findByOwnerId и JOIN items в запросах владельца
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id);
+-- ответы на запросы: JOIN FETCH r.items в ItemRequestRepository
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- свои запросы пользователя от новых к старым
+CREATE INDEX IF NOT EXISTS idx_item_requests_requestor_created ON item_requests (requestor_id, created, id);
+-- лента чужих запросов: keyset по (created DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_item_requests_created ON item_requests (created, id);
+
+-- арендатор: ALL / CURRENT / PAST / FUTURE
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+-- арендатор: WAITING / REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+-- владелец: ALL / CURRENT / PAST / FUTURE и WAITING / REJECTED. Порядок колонок совпадает с ORDER BY списка
+-- (BookingPageRepositoryImpl): H2 не читает индекс в обратном порядке и иначе сортирует все строки владельца
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC, id DESC);
+-- бронирования вещи по статусу: APPROVED для таймлайнов и сводок, проверка пересечений
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date, id);
+-- сводка вещи: последнее закончившееся и ближайшее заканчивающееся подтвержденное бронирование
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+-- право оставить отзыв: завершенное подтвержденное бронирование вещи арендатором
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, status, end_date);
+
+-- комментарии к вещам
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+-- сводки, которые пора пересчитать (ItemSummaryUpdater.rollForward)
+CREATE INDEX IF NOT EXISTS idx_item_summaries_refresh_at ON item_summaries (refresh_at);
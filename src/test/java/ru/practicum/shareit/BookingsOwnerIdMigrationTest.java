@@ -0,0 +1,74 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * db/add-bookings-owner-id.sql на базе прежней схемы (bookings без owner_id): колонка заполняется владельцем
+ * вещи, становится обязательной, индексы владельца заменяют прежний, повторный запуск ничего не ломает.
+ * H2 в режиме PostgreSQL; LOCK TABLE H2 не понимает, а с единственным соединением он и не нужен.
+ */
+class BookingsOwnerIdMigrationTest {
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createPreviousSchema() {
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL", "sa", "", true));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, "
+                + "owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE)");
+        jdbcTemplate.execute("CREATE TABLE bookings (id BIGINT PRIMARY KEY, "
+                + "item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE, "
+                + "start_date TIMESTAMP NOT NULL, status VARCHAR(20) NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date, id)");
+        jdbcTemplate.update("INSERT INTO users VALUES (1), (2)");
+        jdbcTemplate.update("INSERT INTO items VALUES (10, 1), (11, 1), (20, 2)");
+        jdbcTemplate.update("INSERT INTO bookings VALUES (100, 10, NOW(), 'WAITING'), (101, 11, NOW(), 'APPROVED'), "
+                + "(200, 20, NOW(), 'REJECTED')");
+    }
+
+    @Test
+    void ownerIsBackfilledFromItemsAndScriptCanBeRerun() throws IOException {
+        migrate();
+        migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT owner_id FROM bookings ORDER BY id", Long.class))
+                .containsExactly(1L, 1L, 2L);
+        assertThat(jdbcTemplate.queryForList("SELECT index_name FROM information_schema.indexes "
+                + "WHERE table_name = 'BOOKINGS' AND index_name LIKE 'IDX_%'", String.class))
+                .containsExactlyInAnyOrder("IDX_BOOKINGS_OWNER_START", "IDX_BOOKINGS_OWNER_STATUS_START");
+    }
+
+    @Test
+    void ownerIsRequiredAndCascadesOnUserDeletion() throws IOException {
+        migrate();
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO bookings (id, item_id, start_date, status) "
+                + "VALUES (300, 20, NOW(), 'WAITING')"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbcTemplate.update("DELETE FROM users WHERE id = 2");
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings ORDER BY id", Long.class))
+                .containsExactly(100L, 101L);
+    }
+
+    private void migrate() throws IOException {
+        String script = new ClassPathResource("db/add-bookings-owner-id.sql").getContentAsString(StandardCharsets.UTF_8)
+                                                                             .replaceAll("(?m)^LOCK TABLE .*$", "");
+        new ResourceDatabasePopulator(new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)))
+                .execute(jdbcTemplate.getDataSource());
+    }
+}
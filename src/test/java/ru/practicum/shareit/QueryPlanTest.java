@@ -0,0 +1,219 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSummaryRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Выполняет запросы репозиториев, перехватывает сгенерированный Hibernate SQL и проверяет его план через EXPLAIN:
+ * ни один запрос не должен читать таблицу целиком.
+ * <p>
+ * По умолчанию работает на H2 из профиля test. Против Postgres (16+, нужен EXPLAIN (GENERIC_PLAN))
+ * запускается переопределением datasource, например:
+ * {@code mvn test -Dtest=QueryPlanTest -Dspring.datasource.url=jdbc:postgresql://localhost:5432/shareit
+ * -Dspring.datasource.username=... -Dspring.datasource.password=...}
+ */
+// без кэша второго уровня: поиск по id иначе не доходит до базы
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.shareit.QueryPlanTest$SqlCapture",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"})
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesDoNotScanWholeTables() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor first = BookingCursor.FIRST;
+        Limit limit = Limit.of(10);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingStateParam state : BookingStateParam.values()) {
+                queries.put("bookings: " + state + " by " + role, () ->
+                        bookingRepository.findDtoPage(role, 1L, state, now, first, 10));
+            }
+        }
+        queries.put("bookings: APPROVED by items", () ->
+                bookingRepository.findByItemIdInAndStatus(List.of(1L, 2L), BookingStatus.APPROVED));
+        queries.put("bookings: overlapping", () ->
+                bookingRepository.existsOverlapping(1L, EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                        now, now.plusDays(1)));
+        queries.put("bookings: past APPROVED of booker for item", () ->
+                bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(1L, 1L, BookingStatus.APPROVED, now));
+        queries.put("bookings: by id", () -> bookingRepository.findById(1L));
+        queries.put("bookings: by id with access", () -> bookingRepository.findAccess(1L, 1L));
+        queries.put("bookings: last APPROVED of item", () ->
+                bookingRepository.findApprovedEndedBefore(1L, now, Limit.of(1)));
+        queries.put("bookings: next APPROVED of item", () ->
+                bookingRepository.findApprovedStartingAfter(1L, now, Limit.of(1)));
+        queries.put("bookings: first APPROVED end of item", () ->
+                bookingRepository.findFirstApprovedEndNotBefore(1L, now));
+        queries.put("bookings: APPROVED items of booker", () -> bookingRepository.findApprovedItemIdsByBookerId(1L));
+        queries.put("bookings: owner stats", () ->
+                bookingRepository.findOwnerStats(1L, now.minusDays(30), now, now));
+        queries.put("item summaries: by ids", () -> itemSummaryRepository.findAllById(List.of(1L, 2L)));
+        queries.put("item summaries: to refresh", () ->
+                itemSummaryRepository.findItemIdsToRefresh(now, 0L, limit));
+        queries.put("items: by owner", () -> itemRepository.findInfoDtosByOwnerId(1L));
+        queries.put("items: by owner after id", () -> itemRepository.findInfoDtosByOwnerIdAfter(1L, 0L, limit));
+        queries.put("items: by ids (projection)", () -> itemRepository.findDtosByIdIn(List.of(1L, 2L)));
+        queries.put("items: by id", () -> itemRepository.findById(1L));
+        queries.put("items: by id with access", () -> itemRepository.findAccess(1L, 1L));
+        queries.put("items: by id for update", () -> transactionTemplate.executeWithoutResult(status ->
+                itemRepository.findByIdForUpdate(1L)));
+        queries.put("items: available after id", () ->
+                itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(1L, limit));
+        queries.put("comments: by item", () -> commentRepository.findByItemId(1L));
+        queries.put("comments: by items", () -> commentRepository.findByItemIdIn(List.of(1L, 2L)));
+        queries.put("comments: by owner", () -> commentRepository.findByItemOwnerId(1L));
+        queries.put("requests: own with items", () -> itemRequestRepository.findWithItemsByRequestorId(1L));
+        queries.put("requests: by id with items", () -> itemRequestRepository.findWithItemsById(1L));
+        queries.put("requests: feed page", () -> itemRequestRepository.findFeedPage(1L,
+                ItemRequestCursor.FIRST.created(), ItemRequestCursor.FIRST.id(), limit));
+        queries.put("requests: existing ids", () -> itemRequestRepository.findIdsByIdIn(List.of(1L, 2L)));
+        queries.put("users: by id", () -> userRepository.findById(1L));
+        queries.put("users: exists by email", () -> userRepository.existsByEmail("user@mail.ru"));
+
+        return queries.entrySet().stream()
+                      .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                          List<String> statements = SqlCapture.capture(query.getValue());
+                          assertThat(statements).isNotEmpty();
+                          for (String sql : statements) {
+                              String plan = explain(sql);
+                              assertThat(isFullScan(plan))
+                                      .as("full table scan in plan of%n%s%n%s", sql, plan)
+                                      .isFalse();
+                          }
+                      }));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            boolean postgres = isPostgres(connection);
+            if (postgres) {
+                try (PreparedStatement statement = connection.prepareStatement("SET enable_seqscan = off")) {
+                    statement.execute();
+                }
+            }
+            String explain = postgres
+                    ? "EXPLAIN (GENERIC_PLAN) " + toNumberedParameters(sql)
+                    : "EXPLAIN " + sql;
+            try (PreparedStatement statement = connection.prepareStatement(explain)) {
+                if (!postgres) {
+                    for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                        statement.setObject(i, null);
+                    }
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append(System.lineSeparator());
+                    }
+                }
+                return plan.toString();
+            } finally {
+                if (postgres) {
+                    try (PreparedStatement statement = connection.prepareStatement("RESET enable_seqscan")) {
+                        statement.execute();
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean isFullScan(String plan) {
+        // H2 помечает полный просмотр как "/* PUBLIC.TABLE.tableScan */", Postgres — как "Seq Scan"
+        return plan.contains(".tableScan") || plan.contains("Seq Scan");
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return Objects.equals(connection.getMetaData().getDatabaseProductName(), "PostgreSQL");
+    }
+
+    // EXPLAIN (GENERIC_PLAN) в Postgres принимает только параметры вида $1, $2, ...
+    private static String toNumberedParameters(String sql) {
+        StringBuilder result = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> capture(Runnable query) {
+            STATEMENTS.set(new ArrayList<>());
+            try {
+                query.run();
+                return STATEMENTS.get();
+            } finally {
+                STATEMENTS.remove();
+            }
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * schema-postgresql.sql выполняется spring.sql.init на каждом старте: делится на целые операторы
+ * и каждый из них можно выполнить повторно. Postgres для теста не нужен — операторы перехватываются.
+ */
+class SchemaScriptTest {
+
+    @Test
+    void postgresScriptSplitsIntoWholeRerunnableStatements() throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql")).populate(connection);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(statement, atLeastOnce()).execute(sql.capture());
+        assertThat(sql.getAllValues()).allSatisfy(executed -> assertThat(executed).contains("IF NOT EXISTS"));
+        assertThat(sql.getAllValues()).filteredOn(executed -> executed.contains("ex_bookings_item_period"))
+                                      .singleElement()
+                                      .satisfies(executed -> assertThat(executed).startsWith("DO '")
+                                                                                 .endsWith("END'"));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Запросы Tomcat и планировщик работают на виртуальных потоках; пул соединений фиксированный,
+ * и поток, не дождавшийся соединения за connection-timeout, получает ошибку, а не ждет бесконечно.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class VirtualThreadsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private TaskScheduler taskScheduler;
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    void requestsAndScheduledTasksRunOnVirtualThreads() throws Exception {
+        CompletableFuture<Boolean> scheduled = new CompletableFuture<>();
+        taskScheduler.schedule(() -> scheduled.complete(Thread.currentThread().isVirtual()), Instant.now());
+
+        assertThat(restTemplate.getForObject("/test/virtual", Boolean.class)).isTrue();
+        assertThat(scheduled.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void exhaustedPoolFailsAfterConnectionTimeout() throws Exception {
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(Duration.ofSeconds(5).toMillis());
+
+        List<Connection> taken = new ArrayList<>();
+        try {
+            for (int i = 0; i < dataSource.getMaximumPoolSize(); i++) {
+                taken.add(dataSource.getConnection());
+            }
+            long started = System.nanoTime();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+        } finally {
+            for (Connection connection : taken) {
+                connection.close();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class ThreadProbeConfig {
+
+        @Bean
+        ThreadProbeController threadProbeController() {
+            return new ThreadProbeController();
+        }
+    }
+
+    @RestController
+    static class ThreadProbeController {
+
+        @GetMapping("/test/virtual")
+        boolean virtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
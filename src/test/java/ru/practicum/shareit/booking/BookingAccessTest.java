@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Права на бронирование и вещь проверяются тем же запросом, что их загружает: 404 и 403 различаются
+ * без отдельных запросов. Запросы считаются с пустым кэшем второго уровня.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingAccessTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long strangerId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        strangerId = createUser();
+        itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingId = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)), bookerId)
+                                  .getId();
+    }
+
+    @Test
+    void bookerAndOwnerReadBookingWithOneStatement() {
+        for (Long userId : new Long[]{bookerId, ownerId}) {
+            long statements = countStatements(() -> bookingService.getBookingById(bookingId, userId));
+
+            assertThat(statements).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void bookingIsNotFoundForbiddenOrUnknownUser() {
+        assertThatThrownBy(() -> bookingService.getBookingById(Long.MAX_VALUE, bookerId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Бронирование");
+        assertThatThrownBy(() -> bookingService.getBookingById(bookingId, Long.MAX_VALUE))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Пользователь");
+        assertThatThrownBy(() -> bookingService.getBookingById(bookingId, strangerId))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    // число запросов здесь не сравнить: перед коммитом пересчитывается сводка вещи (ItemSummary)
+    @Test
+    void onlyOwnerApprovesWithoutLazyLoads() {
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(bookingId, true, bookerId))
+                .isInstanceOf(AccessDeniedException.class);
+
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = statistics();
+        BookingDto approved = bookingService.updateBookingStatus(bookingId, true, ownerId);
+
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(approved.getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(approved.getItem().getId()).isEqualTo(itemId);
+    }
+
+    @Test
+    void onlyOwnerUpdatesItem() {
+        ItemDto patch = new ItemDto(null, "Перфоратор", null, null, null);
+
+        assertThatThrownBy(() -> itemService.updateItem(itemId, patch, strangerId))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> itemService.updateItem(itemId, patch, Long.MAX_VALUE))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(itemService.updateItem(itemId, patch, ownerId).getName()).isEqualTo("Перфоратор");
+    }
+
+    private long countStatements(Supplier<?> call) {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = statistics();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
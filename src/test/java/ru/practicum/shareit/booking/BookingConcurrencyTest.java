@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.exception.ValidationExceptionDuplicate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+    private static final int WRITERS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentOverlappingBookingsOfOneItemAdmitExactlyOne() throws Exception {
+        Item item = createItem();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        // у каждого писателя свой интервал, но все они пересекаются с [start + 1h, start + 2h)
+        List<Callable<Object>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            Long bookerId = createUser().getId();
+            BookingDtoPost booking = new BookingDtoPost(item.getId(), start.plusMinutes(i), start.plusHours(2));
+            writers.add(() -> bookingService.createBooking(booking, bookerId));
+        }
+
+        List<Object> results = runConcurrently(writers);
+
+        assertThat(results).filteredOn(result -> !(result instanceof Throwable)).hasSize(1);
+        assertThat(results).filteredOn(result -> result instanceof Throwable)
+                           .hasSize(WRITERS - 1)
+                           .allMatch(result -> result instanceof ValidationExceptionDuplicate);
+        assertThat(bookingRepository.findAll())
+                .filteredOn(booking -> booking.getItem().getId().equals(item.getId()))
+                .hasSize(1);
+    }
+
+    @Test
+    void concurrentBookingsOfDifferentItemsAreAllAdmitted() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Callable<Object>> writers = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            Long itemId = createItem().getId();
+            Long bookerId = createUser().getId();
+            BookingDtoPost booking = new BookingDtoPost(itemId, start, start.plusHours(2));
+            writers.add(() -> bookingService.createBooking(booking, bookerId));
+        }
+
+        assertThat(runConcurrently(writers)).noneMatch(result -> result instanceof Throwable);
+    }
+
+    // все писатели стартуют одновременно; результат — DTO или выброшенное исключение
+    private List<Object> runConcurrently(List<Callable<Object>> writers) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers.size());
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<Object> writer : writers) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    try {
+                        return writer.call();
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            startSignal.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Item createItem() {
+        return itemRepository.save(new Item(null, "Вещь", "Описание", true, createUser(), null));
+    }
+
+    private User createUser() {
+        return userRepository.save(TestUsers.newUser());
+    }
+}
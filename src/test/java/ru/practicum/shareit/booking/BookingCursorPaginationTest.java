@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Курсорная пагинация списков бронирований: страницы идут по (start DESC, id DESC) без пропусков и повторов,
+ * в том числе при одинаковом start; у последней страницы нет курсора; испорченный курсор — 400.
+ * Без cursor и size список отдается целиком.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingCursorPaginationTest {
+    private static final int SAME_START = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long ownerId;
+    private List<BookingCursor> expected;
+
+    // пять бронирований разных вещей с одним start и по одному раньше и позже них
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        Long bookerId = createUser();
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.SECONDS);
+        List<LocalDateTime> starts = new ArrayList<>();
+        starts.add(start.minusDays(1));
+        for (int i = 0; i < SAME_START; i++) {
+            starts.add(start);
+        }
+        starts.add(start.plusDays(1));
+
+        expected = new ArrayList<>();
+        for (LocalDateTime bookingStart : starts) {
+            Long itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null), ownerId)
+                                     .getId();
+            Long bookingId = bookingService.createBooking(
+                    new BookingDtoPost(itemId, bookingStart, bookingStart.plusHours(1)), bookerId).getId();
+            expected.add(new BookingCursor(bookingStart, bookingId));
+        }
+        expected.sort(Comparator.comparing(BookingCursor::start).thenComparing(BookingCursor::id).reversed());
+    }
+
+    @Test
+    void cursorSurvivesEncoding() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123_000_000), 42L);
+
+        assertThat(BookingCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(BookingCursor.decode(null)).isEqualTo(BookingCursor.FIRST);
+        assertThat(BookingCursor.decode(" ")).isEqualTo(BookingCursor.FIRST);
+    }
+
+    @Test
+    void pagesSplitEqualStartsWithoutGapsOrRepeats() throws Exception {
+        List<BookingCursor> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MvcResult result = mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                                                     .param("size", "2")
+                                                                     .param("cursor", cursor))
+                                      .andExpect(status().isOk())
+                                      .andReturn();
+            for (JsonNode booking : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                seen.add(new BookingCursor(LocalDateTime.parse(booking.get("start").asText()),
+                        booking.get("id").asLong()));
+            }
+            cursor = result.getResponse().getHeader(BookingController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(4);
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                              .param("size", String.valueOf(expected.size())))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(expected.size()))
+               .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                              .param("size", String.valueOf(expected.size() - 1)))
+               .andExpect(status().isOk())
+               .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                       expected.get(expected.size() - 2).encode()));
+    }
+
+    // клиенты, не передающие ни cursor, ни size, получают весь список, как до пагинации
+    @Test
+    void withoutPagingParametersWholeListIsReturned() throws Exception {
+        Long bookerId = userService.createUser(TestUsers.newUser()).getId();
+        Long itemId = itemService.createItem(new ItemDtoPost("Пила", "Ножовка", true, null), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        for (int i = 0; i < BookingController.DEFAULT_PAGE_SIZE; i++) {
+            LocalDateTime bookingStart = start.plusHours(2L * i);
+            bookingService.createBooking(new BookingDtoPost(itemId, bookingStart, bookingStart.plusHours(1)), bookerId);
+        }
+        int total = expected.size() + BookingController.DEFAULT_PAGE_SIZE;
+
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(total))
+               .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                              .param("cursor", ""))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()").value(BookingController.DEFAULT_PAGE_SIZE))
+               .andExpect(header().exists(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    // медленный клиент: пока строки пишутся в ответ, транзакции и привязанного к потоку соединения нет
+    @Test
+    void streamReadsPagesWithoutHoldingConnectionWhileConsumerWorks() {
+        User owner = userRepository.save(TestUsers.newUser());
+        User booker = userRepository.save(TestUsers.newUser());
+        Item item = itemRepository.save(new Item(null, "Пила", "Ножовка", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusYears(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i <= BookingServiceImpl.STREAM_PAGE_SIZE; i++) {
+            LocalDateTime bookingStart = start.plusHours(2L * i);
+            bookings.add(new Booking(null, bookingStart, bookingStart.plusHours(1), item, booker,
+                    BookingStatus.APPROVED));
+        }
+        bookingRepository.saveAll(bookings);
+
+        List<Long> streamed = new ArrayList<>();
+        bookingService.streamBookingsByBooker(booker.getId(), "ALL", booking -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+            streamed.add(booking.getId());
+        });
+
+        assertThat(streamed).hasSize(bookings.size())
+                            .doesNotHaveDuplicates()
+                            .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        String notACursor = Base64.getUrlEncoder().encodeToString("garbage".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : List.of("%%%", notACursor)) {
+            mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                                  .param("cursor", cursor))
+                   .andExpect(status().isBadRequest())
+                   .andExpect(jsonPath("$.error").exists());
+        }
+        assertThatThrownBy(() -> BookingCursor.decode(notACursor)).isInstanceOf(ValidationException.class);
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
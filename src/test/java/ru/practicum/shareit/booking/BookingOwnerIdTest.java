@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bookings.owner_id заполняется при любой вставке бронирования, а списки владельца выбираются только по нему.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingOwnerIdTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null), ownerId).getId();
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void ownerIsFilledOnInsert() {
+        Long created = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)), bookerId)
+                                     .getId();
+        // кэш второго уровня общий для всех тестовых контекстов, а id в их базах совпадают
+        entityManagerFactory.getCache().evictAll();
+        Long saved = bookingRepository.save(new Booking(null, start.plusDays(2), start.plusDays(3),
+                itemRepository.findById(itemId).orElseThrow(), userRepository.findById(bookerId).orElseThrow(),
+                BookingStatus.WAITING)).getId();
+
+        assertThat(ownerIdOf(created)).isEqualTo(ownerId);
+        assertThat(ownerIdOf(saved)).isEqualTo(ownerId);
+    }
+
+    @Test
+    void ownerListingFollowsColumn() {
+        Long bookingId = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)), bookerId)
+                                       .getId();
+        Long otherId = createUser();
+
+        jdbcTemplate.update("UPDATE bookings SET owner_id = ? WHERE id = ?", otherId, bookingId);
+
+        assertThat(bookingService.getBookingsByOwner(ownerId, "ALL", null, 10).getBookings()).isEmpty();
+        assertThat(bookingService.getBookingsByOwner(otherId, "ALL", null, 10).getBookings())
+                .extracting(BookingDto::getId)
+                .containsExactly(bookingId);
+    }
+
+    private Long ownerIdOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT owner_id FROM bookings WHERE id = ?", Long.class, bookingId);
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Строки-проекции списков и потока бронирований совпадают с тем, что для того же бронирования строит
+ * BookingMapper: ответ не зависит от того, каким путем он получен.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingProjectionTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingMapper bookingMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void projectionMatchesMapperForItemWithRequest() {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        Long requestId = itemRequestService.createRequest(new ItemRequestDtoPost("Нужна дрель"), bookerId).getId();
+        Long itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, requestId), ownerId)
+                                 .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)), bookerId)
+                                       .getId();
+
+        BookingDto mapped = transactionTemplate.execute(status ->
+                bookingMapper.toBookingDto(bookingRepository.findById(bookingId).orElseThrow()));
+        List<BookingDto> page = bookingRepository.findDtoPage(BookingRole.OWNER, ownerId, BookingStateParam.ALL,
+                LocalDateTime.now(), BookingCursor.FIRST, 10);
+        List<BookingDto> streamed = new ArrayList<>();
+        bookingService.streamBookingsByBooker(bookerId, "ALL", streamed::add);
+
+        assertThat(mapped.getItem().getRequestId()).isEqualTo(requestId);
+        assertThat(page).singleElement().usingRecursiveComparison().isEqualTo(mapped);
+        assertThat(streamed).singleElement().usingRecursiveComparison().isEqualTo(mapped);
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
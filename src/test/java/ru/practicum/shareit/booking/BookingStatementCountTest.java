@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStateParam;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Список бронирований в любом состоянии — два запроса (проверка пользователя и сама страница),
+ * сколько бы разных вещей, владельцев и арендаторов на странице ни было.
+ * Считается с пустым кэшем второго уровня: с прогретым пользователь проверяется без запроса.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingStatementCountTest {
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    // у каждой вещи по бронированию в каждом состоянии
+    @BeforeEach
+    void createBookings() {
+        owner = createUser();
+        booker = createUser();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+            save(item, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+            save(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+            save(item, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+            save(item, now.plusDays(4), now.plusDays(5), BookingStatus.WAITING);
+            save(item, now.plusDays(6), now.plusDays(7), BookingStatus.REJECTED);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingStateParam.class)
+    void bookerListIsLoadedWithoutLazyLoads(BookingStateParam state) {
+        long statements = countStatements(() ->
+                bookingService.getBookingsByBooker(booker.getId(), state.name(), null, 100));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingStateParam.class)
+    void ownerListIsLoadedWithoutLazyLoads(BookingStateParam state) {
+        long statements = countStatements(() ->
+                bookingService.getBookingsByOwner(owner.getId(), state.name(), null, 100));
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private long countStatements(Supplier<BookingPageDto> query) {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BookingPageDto page = query.get();
+        assertThat(page.getBookings()).hasSizeGreaterThanOrEqualTo(ITEMS);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void save(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private User createUser() {
+        return userRepository.save(TestUsers.newUser());
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетная смена статуса: результат по каждому id, число запросов не зависит от размера пакета.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingStatusBatchTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void createUsers() {
+        owner = createUser();
+        booker = createUser();
+    }
+
+    @Test
+    void resultIsReportedForEveryId() {
+        List<Long> waiting = createWaitingBookings(owner, 2);
+        Long foreign = createWaitingBookings(createUser(), 1).get(0);
+        Long approved = createWaitingBookings(owner, 1).get(0);
+        bookingService.updateBookingStatus(approved, true, owner.getId());
+
+        List<BookingStatusResultDto> results = bookingService.updateBookingStatuses(
+                List.of(waiting.get(0), foreign, approved, Long.MAX_VALUE, waiting.get(1), waiting.get(0)),
+                false, owner.getId());
+
+        assertThat(results).extracting(BookingStatusResultDto::getBookingId)
+                           .containsExactly(waiting.get(0), foreign, approved, Long.MAX_VALUE, waiting.get(1));
+        assertThat(results).filteredOn(result -> result.getError() == null)
+                           .extracting(BookingStatusResultDto::getBookingId)
+                           .containsExactly(waiting.get(0), waiting.get(1));
+        assertThat(results.get(2).getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(bookingRepository.findAllById(waiting))
+                .allSatisfy(booking -> assertThat(booking.getStatus()).isEqualTo(BookingStatus.REJECTED));
+        assertThat(bookingRepository.findById(foreign).orElseThrow().getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void statementCountDoesNotDependOnBatchSize() {
+        User otherOwner = createUser();
+        long small = countStatements(owner, createWaitingBookings(owner, 3));
+        long large = countStatements(otherOwner, createWaitingBookings(otherOwner, 30));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    // пакеты пересекаются и перечисляют id в разном порядке: без блокировки в порядке id они взаимоблокировались бы
+    @Test
+    void overlappingBatchesInDifferentOrderDoNotDeadlock() throws Exception {
+        List<Long> bookingIds = new ArrayList<>(createWaitingBookings(owner, 10));
+        bookingIds.addAll(createWaitingBookings(owner, 10));
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<Long> batch = new ArrayList<>(bookingIds.subList(i % 2 * 5, bookingIds.size() - (i + 1) % 2 * 5));
+            if (i % 2 == 0) {
+                Collections.reverse(batch);
+            } else {
+                Collections.shuffle(batch);
+            }
+            batches.add(batch);
+        }
+
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(batches.size());
+        List<BookingStatusResultDto> results = new ArrayList<>();
+        try {
+            List<Future<List<BookingStatusResultDto>>> futures = new ArrayList<>();
+            for (List<Long> batch : batches) {
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    return bookingService.updateBookingStatuses(batch, true, owner.getId());
+                }));
+            }
+            startSignal.countDown();
+            for (Future<List<BookingStatusResultDto>> future : futures) {
+                results.addAll(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // каждое бронирование подтверждено ровно одним пакетом, остальные видят уже измененный статус
+        assertThat(results).filteredOn(result -> result.getError() == null)
+                           .extracting(BookingStatusResultDto::getBookingId)
+                           .containsExactlyInAnyOrderElementsOf(bookingIds);
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .allSatisfy(booking -> assertThat(booking.getStatus()).isEqualTo(BookingStatus.APPROVED));
+    }
+
+    private long countStatements(User itemOwner, List<Long> bookingIds) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingStatusResultDto> results = bookingService.updateBookingStatuses(bookingIds, true,
+                itemOwner.getId());
+        assertThat(results).allSatisfy(result -> assertThat(result.getError()).isNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // бронирования одной вещи владельца, идущие друг за другом
+    private List<Long> createWaitingBookings(User itemOwner, int count) {
+        Long itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null),
+                itemOwner.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BookingDtoPost booking = new BookingDtoPost(itemId, start.plusHours(i), start.plusHours(i + 1));
+            bookingIds.add(bookingService.createBooking(booking, booker.getId()).getId());
+        }
+        return bookingIds;
+    }
+
+    private User createUser() {
+        return userRepository.save(TestUsers.newUser());
+    }
+}
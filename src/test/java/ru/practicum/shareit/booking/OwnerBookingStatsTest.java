@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Статистика владельца: счетчики по статусам, занятые дни в периоде и текущая занятость одним запросом.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OwnerBookingStatsTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime today;
+
+    @BeforeEach
+    void createUsers() {
+        owner = createUser();
+        booker = createUser();
+        today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void statsAreAggregatedPerItemAndInTotal() {
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Дрель ударная", true, owner, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Пила циркулярная", true, owner, null));
+        Item tent = itemRepository.save(new Item(null, "Палатка", "Палатка двухместная", true, owner, null));
+        // период — 10 дней до сегодняшнего; первое бронирование попадает в него двумя днями из трех
+        save(drill, today.minusDays(12), today.minusDays(8), BookingStatus.APPROVED);
+        save(drill, today.minusDays(1), today.plusDays(1), BookingStatus.APPROVED);
+        save(drill, today.plusDays(3), today.plusDays(4), BookingStatus.WAITING);
+        save(saw, today.minusDays(5), today.minusDays(4), BookingStatus.REJECTED);
+        save(saw, today.minusDays(3), today.minusDays(2), BookingStatus.APPROVED);
+
+        OwnerBookingStatsDto stats = bookingService.getOwnerStats(owner.getId(), today.minusDays(10), today);
+
+        assertThat(stats.getItems()).extracting(ItemBookingStatsDto::getItemId)
+                                    .containsExactly(drill.getId(), saw.getId(), tent.getId());
+        ItemBookingStatsDto drillStats = stats.getItems().get(0);
+        assertThat(drillStats.getStatusCounts()).containsEntry(BookingStatus.APPROVED, 2L)
+                                                .containsEntry(BookingStatus.WAITING, 1L)
+                                                .containsEntry(BookingStatus.REJECTED, 0L);
+        assertThat(drillStats.getBookedDays()).isEqualTo(3.0);
+        assertThat(drillStats.getUtilization()).isCloseTo(0.3, within(1e-9));
+        assertThat(drillStats.isOccupied()).isTrue();
+        assertThat(stats.getItems().get(1).isOccupied()).isFalse();
+        assertThat(stats.getItems().get(2).getStatusCounts()).allSatisfy((status, count) ->
+                assertThat(count).isZero());
+
+        assertThat(stats.getStatusCounts()).containsEntry(BookingStatus.APPROVED, 3L)
+                                           .containsEntry(BookingStatus.REJECTED, 1L)
+                                           .containsEntry(BookingStatus.CANCELED, 0L);
+        assertThat(stats.getBookedDays()).isEqualTo(4.0);
+        assertThat(stats.getUtilization()).isCloseTo(4.0 / 30, within(1e-9));
+        assertThat(stats.getOccupiedItems()).isEqualTo(1);
+    }
+
+    @Test
+    void statementCountDoesNotDependOnBookings() {
+        Item item = itemRepository.save(new Item(null, "Дрель", "Дрель ударная", true, owner, null));
+        for (int i = 0; i < 20; i++) {
+            save(item, today.minusDays(2 * i + 2), today.minusDays(2 * i + 1), BookingStatus.APPROVED);
+        }
+        // проверка владельца обслуживается кэшем, считается только сам агрегат
+        bookingService.getOwnerStats(owner.getId(), today.minusDays(1), today);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        OwnerBookingStatsDto stats = bookingService.getOwnerStats(owner.getId(), today.minusDays(10), today);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getStatusCounts()).containsEntry(BookingStatus.APPROVED, 20L);
+        assertThat(stats.getBookedDays()).isEqualTo(5.0);
+    }
+
+    @Test
+    void emptyPeriodIsRejected() {
+        assertThatThrownBy(() -> bookingService.getOwnerStats(owner.getId(), today, today))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private void save(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private User createUser() {
+        return userRepository.save(TestUsers.newUser());
+    }
+}
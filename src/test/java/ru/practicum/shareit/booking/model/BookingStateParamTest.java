@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.metrics.BookingStateTagResolver;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Состояние из запроса не зависит от локали сервера: в турецкой "i" в верхнем регистре — "İ".
+ */
+class BookingStateParamTest {
+    private Locale defaultLocale;
+
+    @BeforeEach
+    void useTurkishLocale() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void lowerCaseStateIsRecognized() {
+        assertThat(BookingStateParam.isValid("waiting")).isTrue();
+        assertThat(new BookingStateTagResolver().resolve("waiting")).isEqualTo("WAITING");
+        assertThat(new BookingStateTagResolver().resolve("unknown")).isEqualTo("UNKNOWN");
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Изменения бронирований доходят до подписчиков после коммита; медленный подписчик отключается.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingNotifierTest {
+
+    @Autowired
+    private BookingNotifier bookingNotifier;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void bookingChangesArePushedToBookerAndOwner() throws InterruptedException {
+        Long ownerId = createUser();
+        Long bookerId = createUser();
+        RecordingEmitter ownerEvents = subscribe(ownerId);
+        RecordingEmitter bookerEvents = subscribe(bookerId);
+        Long itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null), ownerId)
+                                 .getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)),
+                bookerId);
+        bookingService.updateBookingStatus(booking.getId(), true, ownerId);
+
+        for (RecordingEmitter events : new RecordingEmitter[]{ownerEvents, bookerEvents}) {
+            assertThat(events.next()).satisfies(notification -> {
+                assertThat(notification.getBookingId()).isEqualTo(booking.getId());
+                assertThat(notification.getStatus()).isEqualTo(BookingStatus.WAITING);
+            });
+            assertThat(events.next().getStatus()).isEqualTo(BookingStatus.APPROVED);
+        }
+    }
+
+    @Test
+    void rolledBackChangeIsNotPushed() throws InterruptedException {
+        Long userId = createUser();
+        RecordingEmitter events = subscribe(userId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(userId, BookingStatus.APPROVED));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(event(userId, BookingStatus.REJECTED)));
+
+        assertThat(events.next().getStatus()).isEqualTo(BookingStatus.REJECTED);
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedOnOverflow() throws InterruptedException {
+        Long userId = createUser();
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        bookingNotifier.register(userId, slow);
+        double overflows = meterRegistry.counter("shareit.notifications.overflows").count();
+
+        // первое событие забирает поток подписчика и застревает в send, остальные копятся в очереди
+        for (int i = 0; i < 1_000; i++) {
+            bookingNotifier.onBookingChanged(event(userId, BookingStatus.WAITING));
+        }
+        release.countDown();
+
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("shareit.notifications.overflows").count()).isEqualTo(overflows + 1);
+    }
+
+    @Test
+    void unknownUserCannotSubscribe() throws Exception {
+        mockMvc.perform(get("/bookings/events").header("X-Sharer-User-Id", Long.MAX_VALUE)
+                                               .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+               .andExpect(status().isNotFound());
+    }
+
+    private static BookingChangedEvent event(Long bookerId, BookingStatus status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingChangedEvent(1L, 1L, -bookerId, bookerId, start, start.plusDays(1), status);
+    }
+
+    private RecordingEmitter subscribe(Long userId) {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        bookingNotifier.register(userId, emitter);
+        return emitter;
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+
+    // SseEmitter без HTTP-соединения: складывает отправленные уведомления в очередь, send ждет release
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<BookingNotificationDto> notifications = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            builder.build().stream()
+                   .map(DataWithMediaType::getData)
+                   .filter(BookingNotificationDto.class::isInstance)
+                   .map(BookingNotificationDto.class::cast)
+                   .forEach(notifications::add);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        BookingNotificationDto next() throws InterruptedException {
+            BookingNotificationDto notification = notifications.poll(5, TimeUnit.SECONDS);
+            assertThat(notification).as("уведомление не пришло").isNotNull();
+            return notification;
+        }
+    }
+}
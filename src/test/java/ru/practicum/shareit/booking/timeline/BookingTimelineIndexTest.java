@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.timeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Индекс таймлайнов без Spring: загрузка набора вещей одним запросом, события после коммита,
+ * ограничение числа вещей в памяти и загрузка, которую обогнало событие.
+ */
+class BookingTimelineIndexTest {
+    private static final int MAX_ITEMS = 10;
+    private static final LocalDateTime T = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final User owner = new User(1L, "Владелец", "owner@mail.ru");
+    private final User booker = new User(2L, "Арендатор", "booker@mail.ru");
+    private final Item item = new Item(10L, "Дрель", "Дрель ударная", true, owner, null);
+
+    private BookingRepository bookingRepository;
+    private BookingTimelineIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        Booking approved = new Booking(100L, T, T.plusHours(2), item, booker, BookingStatus.APPROVED);
+        when(bookingRepository.findByItemIdInAndStatus(anyCollection(), eq(BookingStatus.APPROVED)))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).contains(item.getId())
+                        ? List.of(approved)
+                        : List.of());
+        index = new BookingTimelineIndex(bookingRepository, new SimpleMeterRegistry(), MAX_ITEMS);
+    }
+
+    @Test
+    void itemsAreLoadedTogetherOnceAndKeptUpToDateByEvents() {
+        assertThat(index.timelines(List.of(10L, 20L))).containsOnlyKeys(10L, 20L);
+        assertThat(index.timeline(10L).nextStartingAfter(T.minusHours(1))).map(BookingInterval::bookingId)
+                                                                           .contains(100L);
+
+        index.onBookingChanged(event(101L, 20L, BookingStatus.APPROVED));
+        index.onBookingChanged(event(100L, 10L, BookingStatus.REJECTED));
+
+        assertThat(index.timeline(10L).isFree(T, T.plusHours(2))).isTrue();
+        assertThat(index.timeline(20L).overlapping(T, T.plusHours(1))).extracting(BookingInterval::bookingId)
+                                                                      .containsExactly(101L);
+        verify(bookingRepository, times(1)).findByItemIdInAndStatus(anyCollection(), any());
+    }
+
+    @Test
+    void numberOfItemsInMemoryIsBounded() {
+        List<Long> itemIds = LongStream.rangeClosed(1, MAX_ITEMS * 5L).boxed().toList();
+        itemIds.forEach(index::timeline);
+
+        assertThat(index.cachedItems()).isLessThanOrEqualTo(MAX_ITEMS);
+        // вытесненная вещь загружается заново и по-прежнему видит свои бронирования
+        assertThat(index.timelines(itemIds)).hasSize(itemIds.size());
+        assertThat(index.timeline(item.getId()).isFree(T, T.plusHours(1))).isFalse();
+    }
+
+    // событие пришло, пока шел запрос загрузки: ее снимок мог его не увидеть, и в памяти он не остается
+    @Test
+    void loadOvertakenByEventIsNotCached() {
+        List<Collection<Long>> loads = new ArrayList<>();
+        when(bookingRepository.findByItemIdInAndStatus(anyCollection(), eq(BookingStatus.APPROVED)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> itemIds = invocation.getArgument(0);
+                    loads.add(Set.copyOf(itemIds));
+                    if (loads.size() == 1) {
+                        index.onBookingChanged(event(101L, 30L, BookingStatus.APPROVED));
+                    }
+                    return List.of();
+                });
+
+        index.timeline(20L);
+        index.timeline(20L);
+
+        assertThat(loads).containsExactly(Set.of(20L), Set.of(30L), Set.of(20L));
+        assertThat(index.timeline(30L).overlapping(T, T.plusHours(1))).hasSize(1);
+    }
+
+    private static BookingChangedEvent event(Long bookingId, Long itemId, BookingStatus status) {
+        return new BookingChangedEvent(bookingId, itemId, 1L, 2L, T, T.plusHours(1), status);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск по таймлайну вещи: границы полуинтервалов [start, end), последнее и следующее бронирование,
+ * замена и удаление бронирования.
+ */
+class ItemTimelineTest {
+    private static final LocalDateTime T = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private final BookingInterval first = interval(1L, 0, 2);
+    private final BookingInterval second = interval(2L, 4, 6);
+    private final BookingInterval third = interval(3L, 6, 8);
+
+    private ItemTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        timeline = new ItemTimeline();
+        timeline.put(third);
+        timeline.put(first);
+        timeline.put(second);
+    }
+
+    @Test
+    void lastAndNextAreStrictlyBeforeAndAfterMoment() {
+        assertThat(timeline.lastEndedBefore(T.plusHours(2))).isEmpty();
+        assertThat(timeline.lastEndedBefore(T.plusHours(5))).contains(first);
+        assertThat(timeline.lastEndedBefore(T.plusHours(9))).contains(third);
+        assertThat(timeline.nextStartingAfter(T.minusHours(1))).contains(first);
+        assertThat(timeline.nextStartingAfter(T.plusHours(4))).contains(third);
+        assertThat(timeline.nextStartingAfter(T.plusHours(6))).isEmpty();
+    }
+
+    @Test
+    void overlappingTouchesNeitherEndOfHalfOpenIntervals() {
+        assertThat(timeline.overlapping(T.plusHours(2), T.plusHours(4))).isEmpty();
+        assertThat(timeline.isFree(T.plusHours(2), T.plusHours(4))).isTrue();
+        assertThat(timeline.overlapping(T.plusHours(1), T.plusHours(5))).containsExactly(first, second);
+        assertThat(timeline.overlapping(T.plusHours(5), T.plusHours(7))).containsExactly(second, third);
+        assertThat(timeline.isFree(T.plusHours(5), T.plusHours(7))).isFalse();
+        assertThat(timeline.overlapping(T.minusHours(1), T.plusHours(10))).containsExactly(first, second, third);
+        assertThat(timeline.isFree(T.plusHours(8), T.plusHours(9))).isTrue();
+    }
+
+    @Test
+    void putReplacesAndRemoveDeletesBooking() {
+        BookingInterval moved = interval(2L, 10, 12);
+        timeline.put(moved);
+        timeline.remove(first.bookingId());
+        timeline.remove(Long.MAX_VALUE);
+
+        assertThat(timeline.overlapping(T.minusHours(1), T.plusHours(20))).containsExactly(third, moved);
+        assertThat(timeline.isFree(T, T.plusHours(6))).isTrue();
+        assertThat(timeline.lastEndedBefore(T.plusHours(9))).contains(third);
+    }
+
+    private static BookingInterval interval(Long bookingId, int startHour, int endHour) {
+        return new BookingInterval(bookingId, T.plusHours(startHour), T.plusHours(endHour), 100L);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Поиск вещей, свободных в окне [start, end): мешают только подтвержденные пересекающиеся бронирования.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemAvailabilitySearchTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+
+    private Long ownerId;
+    private Long bookerId;
+    // уникальное слово в названиях вещей теста: в контексте есть вещи других тестов
+    private String tag;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        tag = UUID.randomUUID().toString();
+        start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void onlyItemsWithoutOverlappingApprovedBookingsAreFree() {
+        Long free = createItem();
+        Long overlapped = createItem();
+        Long waiting = createItem();
+        Long adjacent = createItem();
+        book(overlapped, start.plusHours(2), start.plusHours(30), true);
+        book(waiting, start, start.plusHours(1), false);
+        // закончилось ровно к началу окна и начинается ровно с его конца
+        book(adjacent, start.minusDays(1), start, true);
+        book(adjacent, start.plusDays(1), start.plusDays(2), true);
+
+        List<ItemDto> found = itemService.searchFreeItems(tag, start, start.plusDays(1), 0, 100);
+
+        assertThat(found).extracting(ItemDto::getId).containsExactlyInAnyOrder(free, waiting, adjacent);
+        assertThat(itemService.searchItems(tag, 0, 100)).hasSize(4);
+    }
+
+    @Test
+    void freeItemsArePaged() {
+        List<Long> free = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long itemId = createItem();
+            if (i % 2 == 0) {
+                book(itemId, start, start.plusHours(1), true);
+            } else {
+                free.add(itemId);
+            }
+        }
+        free.add(createItem());
+        free.add(createItem());
+
+        List<Long> seen = new ArrayList<>();
+        for (int from = 0; from < 10; from += 2) {
+            itemService.searchFreeItems(tag, start, start.plusHours(1), from, 2)
+                       .forEach(item -> seen.add(item.getId()));
+        }
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(free);
+    }
+
+    // бронирования удаленного арендатора удаляет каскад в базе, без событий о них — вещь снова свободна
+    @Test
+    void itemBlockedByDeletedBookerIsFree() {
+        Long itemId = createItem();
+        book(itemId, start, start.plusHours(1), true);
+        assertThat(itemService.searchFreeItems(tag, start, start.plusDays(1), 0, 100)).isEmpty();
+
+        userService.deleteUser(bookerId);
+
+        assertThat(itemService.searchFreeItems(tag, start, start.plusDays(1), 0, 100))
+                .extracting(ItemDto::getId)
+                .containsExactly(itemId);
+    }
+
+    @Test
+    void blankTextFindsNothing() {
+        createItem();
+
+        assertThat(itemService.searchFreeItems(" ", start, start.plusDays(1), 0, 100)).isEmpty();
+        assertThat(itemService.searchFreeItems(null, start, start.plusDays(1), 0, 100)).isEmpty();
+    }
+
+    @Test
+    void emptyWindowIsRejected() {
+        assertThatThrownBy(() -> itemService.searchFreeItems(tag, start, start, 0, 100))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private Long createItem() {
+        return itemService.createItem(new ItemDtoPost("Дрель " + tag, "Дрель ударная", true, null), ownerId)
+                          .getId();
+    }
+
+    private void book(Long itemId, LocalDateTime bookingStart, LocalDateTime bookingEnd, boolean approve) {
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, bookingStart, bookingEnd),
+                bookerId);
+        if (approve) {
+            bookingService.updateBookingStatus(booking.getId(), true, ownerId);
+        }
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.CalendarSlotDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Календарь вещи: слоты подряд покрывают период, занятые — только подтвержденными бронированиями.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemCalendarTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null), ownerId).getId();
+        day = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    @Test
+    void slotsCoverPeriodAndMergeAdjacentBookings() {
+        book(day.minusDays(1), day.plusHours(2), true);
+        book(day.plusHours(2), day.plusHours(4), true);
+        book(day.plusHours(6), day.plusHours(8), false);
+        book(day.plusHours(10), day.plusHours(30), true);
+
+        ItemCalendarDto calendar = itemService.getItemCalendar(itemId, day, day.plusDays(1));
+
+        assertThat(calendar.getSlots())
+                .extracting(CalendarSlotDto::getStart, CalendarSlotDto::getEnd, CalendarSlotDto::isFree)
+                .containsExactly(
+                        tuple(day, day.plusHours(4), false),
+                        tuple(day.plusHours(4), day.plusHours(10), true),
+                        tuple(day.plusHours(10), day.plusDays(1), false));
+    }
+
+    @Test
+    void approvalOccupiesSlot() {
+        Long bookingId = book(day.plusHours(1), day.plusHours(2), false);
+        assertThat(itemService.getItemCalendar(itemId, day, day.plusDays(1)).getSlots())
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.isFree()).isTrue());
+
+        bookingService.updateBookingStatus(bookingId, true, ownerId);
+
+        assertThat(itemService.getItemCalendar(itemId, day, day.plusDays(1)).getSlots())
+                .extracting(CalendarSlotDto::isFree)
+                .containsExactly(true, false, true);
+    }
+
+    // бронирования удаленного арендатора удаляет каскад в базе, без событий о них — слот снова свободен
+    @Test
+    void deletedBookerFreesSlot() {
+        book(day.plusHours(1), day.plusHours(2), true);
+        assertThat(itemService.getItemCalendar(itemId, day, day.plusDays(1)).getSlots())
+                .extracting(CalendarSlotDto::isFree)
+                .containsExactly(true, false, true);
+
+        userService.deleteUser(bookerId);
+
+        assertThat(itemService.getItemCalendar(itemId, day, day.plusDays(1)).getSlots())
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.isFree()).isTrue());
+    }
+
+    @Test
+    void unknownItemIsNotFound() {
+        assertThatThrownBy(() -> itemService.getItemCalendar(Long.MAX_VALUE, day, day.plusDays(1)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end, boolean approve) {
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, start, end), bookerId);
+        if (approve) {
+            bookingService.updateBookingStatus(booking.getId(), true, ownerId);
+        }
+        return booking.getId();
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
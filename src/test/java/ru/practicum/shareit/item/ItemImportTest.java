@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.web.JsonValuesReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Импорт вещей: JSON-массив и NDJSON, все или ничего, запись пакетами JDBC.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemImportTest {
+    private static final String ITEM = "{\"name\":\"Дрель %d\",\"description\":\"Дрель ударная\",\"available\":true}";
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @BeforeEach
+    void createOwner() {
+        owner = userRepository.save(TestUsers.newUser());
+    }
+
+    @Test
+    void jsonArrayAndNdjsonAreImported() throws IOException {
+        assertThat(importItems("[" + items(3, ",") + "]")).isEqualTo(3);
+        assertThat(importItems(items(2, "\n"))).isEqualTo(2);
+
+        assertThat(itemService.getAllItemsByOwner(owner.getId()))
+                .hasSize(5)
+                .allSatisfy(item -> assertThat(itemSummaryRepository.existsById(item.getId())).isTrue());
+    }
+
+    @Test
+    void invalidItemRejectsWholeImport() {
+        String body = items(2, "\n") + "\n{\"name\":\"Пила\",\"description\":\"\",\"available\":true}";
+
+        assertThatThrownBy(() -> importItems(body))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Элемент 3: description");
+        assertThat(itemService.getAllItemsByOwner(owner.getId())).isEmpty();
+    }
+
+    @Test
+    void itemsAreInsertedInJdbcBatches() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(importItems(items(120, "\n"))).isEqualTo(120);
+
+        // проверка владельца, три блока id из последовательности и по три пакета вещей и сводок
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    private int importItems(String body) throws IOException {
+        try (JsonValuesReader<ItemDtoPost> items = new JsonValuesReader<>(objectMapper, ItemDtoPost.class,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), validator)) {
+            return itemService.importItems(owner.getId(), items).getImported();
+        }
+    }
+
+    private static String items(int count, String delimiter) {
+        return IntStream.range(0, count)
+                        .mapToObj(i -> String.format(ITEM, i))
+                        .collect(Collectors.joining(delimiter));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemServiceStatementCountTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void getAllItemsByOwnerStatementCountDoesNotDependOnItemCount() {
+        long fewItems = countStatements(createOwnerWithCommentedItems(2));
+        long manyItems = countStatements(createOwnerWithCommentedItems(20));
+
+        assertThat(manyItems).isEqualTo(fewItems);
+    }
+
+    @Test
+    void getAllItemsByOwnerReturnsCommentsWithAuthorNames() {
+        Long ownerId = createOwnerWithCommentedItems(3);
+
+        List<ItemInfoDto> items = itemService.getAllItemsByOwner(ownerId);
+
+        assertThat(items).hasSize(3)
+                         .allSatisfy(item -> assertThat(item.getComments())
+                                 .hasSize(2)
+                                 .allSatisfy(comment -> assertThat(comment.getAuthorName()).isNotBlank()));
+    }
+
+    // медленный клиент: пока вещи пишутся в ответ, транзакции и привязанного к потоку соединения нет
+    @Test
+    void streamItemsByOwnerReadsChunksWithoutHoldingConnectionWhileConsumerWorks() {
+        User owner = userRepository.save(TestUsers.newUser());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i <= ItemServiceImpl.STREAM_CHUNK_SIZE; i++) {
+            items.add(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+        }
+        itemRepository.saveAll(items);
+
+        List<Long> streamed = new ArrayList<>();
+        itemService.streamItemsByOwner(owner.getId(), item -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+            assertThat(item.getComments()).isNotNull();
+            streamed.add(item.getId());
+        });
+
+        assertThat(streamed).hasSize(items.size()).doesNotHaveDuplicates().isSorted();
+    }
+
+    private long countStatements(Long ownerId) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        itemService.getAllItemsByOwner(ownerId);
+        return statistics.getPrepareStatementCount();
+    }
+
+    // у каждой вещи по два комментария от разных авторов
+    private Long createOwnerWithCommentedItems(int itemCount) {
+        User owner = userRepository.save(TestUsers.newUser());
+        for (int i = 0; i < itemCount; i++) {
+            Item item = itemRepository.save(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null));
+            for (int j = 0; j < 2; j++) {
+                User author = userRepository.save(TestUsers.newUser());
+                commentRepository.save(new Comment(null, "Комментарий " + j, item, author, LocalDateTime.now()));
+            }
+        }
+        return owner.getId();
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Список вещей владельца читает последнее и следующее бронирование из сводок вещей.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSummaryTest {
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+    @Autowired
+    private ItemSummaryUpdater itemSummaryUpdater;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void createUsers() {
+        owner = createUser();
+        booker = createUser();
+    }
+
+    @Test
+    void approvedBookingIsSummarizedAfterCommit() {
+        Long itemId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, null),
+                owner.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusDays(1)),
+                booker.getId());
+
+        bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+
+        ItemSummary summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getLastBooking()).isNull();
+        assertThat(summary.getNextBooking().bookingId()).isEqualTo(booking.getId());
+        assertThat(summary.getRefreshAt()).isEqualTo(start);
+        assertThat(itemService.getAllItemsByOwner(owner.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getNextBooking().getId()).isEqualTo(booking.getId()));
+    }
+
+    @Test
+    void rollForwardMovesPassedBookingsIntoSummary() {
+        Long itemId = itemService.createItem(new ItemDtoPost("Пила", "Пила циркулярная", true, null),
+                owner.getId()).getId();
+        Item item = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        // бронирования в обход сервиса: сводку о них может узнать только планировщик
+        Booking past = save(item, now.minusDays(3), now.minusDays(2));
+        Booking current = save(item, now.minusDays(1), now.plusDays(1));
+        Booking future = save(item, now.plusDays(2), now.plusDays(3));
+        ItemSummary summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        summary.setRefreshAt(now.minusSeconds(1));
+        itemSummaryRepository.save(summary);
+
+        itemSummaryUpdater.rollForward();
+
+        summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getLastBooking().bookingId()).isEqualTo(past.getId());
+        assertThat(summary.getNextBooking().bookingId()).isEqualTo(future.getId());
+        assertThat(summary.getRefreshAt()).isEqualTo(current.getEnd());
+    }
+
+    @Test
+    void summarizedItemsAreListedWithoutBookingQueries() {
+        for (int i = 0; i < 5; i++) {
+            Long itemId = itemService.createItem(new ItemDtoPost("Вещь " + i, "Описание " + i, true, null),
+                    owner.getId()).getId();
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            BookingDto booking = bookingService.createBooking(
+                    new BookingDtoPost(itemId, start, start.plusHours(1)), booker.getId());
+            bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemInfoDto> items = itemService.getAllItemsByOwner(owner.getId());
+
+        assertThat(items).hasSize(5).allSatisfy(item -> assertThat(item.getNextBooking()).isNotNull());
+        // вещи, их сводки и комментарии
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    // бронирования арендатора удаляет каскад в базе, без событий: сводка пересчитывается в транзакции удаления
+    @Test
+    void deletedBookerDisappearsFromSummary() {
+        Long itemId = itemService.createItem(new ItemDtoPost("Лобзик", "Лобзик электрический", true, null),
+                owner.getId()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusHours(1)),
+                booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+        assertThat(itemSummaryRepository.findById(itemId).orElseThrow().getNextBooking().bookingId())
+                .isEqualTo(booking.getId());
+
+        userService.deleteUser(booker.getId());
+
+        ItemSummary summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getNextBooking()).isNull();
+        assertThat(summary.getRefreshAt()).isNull();
+        assertThat(itemService.getAllItemsByOwner(owner.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getNextBooking()).isNull());
+    }
+
+    // сводки нет — список читает таймлайн, закэшированный до удаления арендатора вместе с его бронированиями
+    @Test
+    void deletedBookerDisappearsFromTimelineOfOwnerList() {
+        Long itemId = itemService.createItem(new ItemDtoPost("Рубанок", "Рубанок ручной", true, null),
+                owner.getId()).getId();
+        itemSummaryRepository.deleteById(itemId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(new BookingDtoPost(itemId, start, start.plusHours(1)),
+                booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+        assertThat(itemService.getAllItemsByOwner(owner.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getNextBooking().getId()).isEqualTo(booking.getId()));
+
+        userService.deleteUser(booker.getId());
+
+        assertThat(itemService.getAllItemsByOwner(owner.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.getNextBooking()).isNull());
+    }
+
+    private Booking save(Item item, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatus.APPROVED));
+    }
+
+    private User createUser() {
+        return userRepository.save(TestUsers.newUser());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Индекс в памяти без Spring: построение при старте, ранжирование, короткие запросы и обновления по событиям.
+ */
+class InMemoryItemSearchEngineTest {
+    private static final Long OWNER_ID = 1L;
+    private static final Long OTHER_OWNER_ID = 2L;
+
+    private InMemoryItemSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        User owner = new User(OWNER_ID, "Владелец", "owner@mail.ru");
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(
+                        new Item(1L, "Ударная дрель", "Мощная", true, owner, null),
+                        new Item(2L, "Дрель", "Простая дрель", true, owner, null),
+                        new Item(3L, "Шуруповерт", "Заменяет дрель", true, owner, null),
+                        new Item(4L, "Пила", "Ножовка по дереву", true, owner, null)))
+                .thenReturn(List.of());
+        engine = new InMemoryItemSearchEngine(itemRepository, mock(BookingTimelineIndex.class));
+        engine.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        assertThat(engine.search("дрель", 0, 10)).containsExactly(2L, 1L, 3L);
+        assertThat(engine.search("дрель", 1, 1)).containsExactly(1L);
+        assertThat(engine.search("дрель", 3, 10)).isEmpty();
+    }
+
+    @Test
+    void queriesShorterThanTrigramScanAllDocuments() {
+        assertThat(engine.search("д", 0, 10)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(engine.search("др", 0, 10)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(engine.search("рев", 0, 10)).containsExactly(4L);
+        assertThat(engine.search("ё", 0, 10)).isEmpty();
+        assertThat(engine.search("", 0, 10)).isEmpty();
+    }
+
+    // % и _ — обычные символы, как и в экранированном LIKE поискового движка Postgres
+    @Test
+    void patternCharactersMatchLiterally() {
+        engine.onItemSaved(new ItemSavedEvent(5L, OWNER_ID, "Скидка 50%", "Набор_бит", true));
+
+        assertThat(engine.search("%", 0, 10)).containsExactly(5L);
+        assertThat(engine.search("0%", 0, 10)).containsExactly(5L);
+        assertThat(engine.search("р_б", 0, 10)).containsExactly(5L);
+        assertThat(engine.search("д_ель", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void longQueryMustMatchAsSubstring() {
+        // все триграммы "дрель мощ" есть у вещи 1, но в одном поле подряд они не стоят
+        assertThat(engine.search("дрель мощ", 0, 10)).isEmpty();
+        assertThat(engine.search("ная дре", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void availabilityAndRenamesFollowSavedItems() {
+        engine.onItemSaved(new ItemSavedEvent(2L, OWNER_ID, "Дрель", "Простая дрель", false));
+        assertThat(engine.search("дрель", 0, 10)).containsExactly(1L, 3L);
+
+        engine.onItemSaved(new ItemSavedEvent(2L, OWNER_ID, "Перфоратор", "Бывшая дрель", true));
+        // у 2 и 3 совпадение только в описании — равная релевантность, порядок по id
+        assertThat(engine.search("дрель", 0, 10)).containsExactly(1L, 2L, 3L);
+        assertThat(engine.search("перф", 0, 10)).containsExactly(2L);
+        assertThat(engine.search("прост", 0, 10)).isEmpty();
+    }
+
+    // списки триграмм растут и сжимаются при любом порядке id
+    @Test
+    void postingListsFollowInsertsAndRemovalsInAnyOrder() {
+        for (long id = 200; id > 100; id--) {
+            engine.onItemSaved(new ItemSavedEvent(id, OTHER_OWNER_ID, "Ключ " + id, "Гаечный", true));
+        }
+        for (long id = 102; id <= 200; id += 2) {
+            engine.onItemSaved(new ItemSavedEvent(id, OTHER_OWNER_ID, "Ключ " + id, "Гаечный", false));
+        }
+
+        assertThat(engine.search("гаечный", 0, 100))
+                .hasSize(50)
+                .isSorted()
+                .allMatch(id -> id % 2 == 1);
+        assertThat(engine.search("ключ 15", 0, 100)).containsExactly(151L, 153L, 155L, 157L, 159L);
+    }
+
+    @Test
+    void deletedOwnerItemsAreEvicted() {
+        engine.onItemSaved(new ItemSavedEvent(5L, OTHER_OWNER_ID, "Дрель", "Чужая дрель", true));
+
+        engine.onUserDeleted(new UserDeletedEvent(OWNER_ID));
+
+        assertThat(engine.search("дрель", 0, 10)).containsExactly(5L);
+        assertThat(engine.search("д", 0, 10)).containsExactly(5L);
+        engine.onUserDeleted(new UserDeletedEvent(OWNER_ID));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Запрос уходит в LIKE ... ESCAPE '\' буквальным: \, % и _ экранированы, для ранжирования — исходный текст.
+ */
+class PostgresItemSearchEngineTest {
+
+    @Test
+    void patternCharactersAreEscaped() {
+        assertThat(PostgresItemSearchEngine.likePattern("дрель")).isEqualTo("%дрель%");
+        assertThat(PostgresItemSearchEngine.likePattern("50%_off\\")).isEqualTo("%50\\%\\_off\\\\%");
+    }
+
+    @Test
+    void escapedPatternAndRawTextArePassedToQueries() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        PostgresItemSearchEngine engine = new PostgresItemSearchEngine(itemRepository);
+        LocalDateTime start = LocalDateTime.now();
+
+        engine.search("a_b", 0, 10);
+        engine.searchFree("a_b", start, start.plusDays(1), 0, 10);
+
+        verify(itemRepository).searchAvailableItemIds("%a\\_b%", "a_b", 0, 10);
+        verify(itemRepository).searchFreeItemIds("%a\\_b%", "a_b", start, start.plusDays(1), 0, 10);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServiceMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bookingListIsTimedPerState() throws Exception {
+        Long bookerId = createUser();
+
+        // страница и весь список (без cursor и size) — разные методы сервиса, оба с тегом state
+        mockMvc.perform(get("/bookings").param("state", "PAST").param("size", "10")
+                                        .header("X-Sharer-User-Id", bookerId))
+               .andExpect(status().isOk());
+        mockMvc.perform(get("/bookings").param("state", "PAST").header("X-Sharer-User-Id", bookerId))
+               .andExpect(status().isOk());
+
+        for (String method : new String[]{"getBookingsByBooker", "streamBookingsByBooker"}) {
+            Timer timer = meterRegistry.find("shareit.service")
+                                       .tag("method", method)
+                                       .tag("state", "PAST")
+                                       .timer();
+            assertThat(timer).isNotNull();
+            assertThat(timer.count()).isPositive();
+        }
+    }
+
+    @Test
+    void sqlStatementsAreCountedPerRequestUri() throws Exception {
+        Long userId = createUser();
+        // иначе только что сохраненный пользователь читается из кэша второго уровня без запросов
+        entityManagerFactory.getCache().evict(User.class, userId);
+
+        mockMvc.perform(get("/users/{userId}", userId)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("shareit.http.sql.statements")
+                                                      .tag("uri", "/users/{userId}")
+                                                      .summary();
+        assertThat(statements).isNotNull();
+        assertThat(statements.max()).isPositive();
+    }
+
+    @Test
+    void hibernateStatisticsAreExported() {
+        assertThat(meterRegistry.find("hibernate.statements").meters()).isNotEmpty();
+    }
+
+    private Long createUser() {
+        return userRepository.save(TestUsers.newUser()).getId();
+    }
+}
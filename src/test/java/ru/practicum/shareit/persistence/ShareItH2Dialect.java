@@ -0,0 +1,16 @@
+package ru.practicum.shareit.persistence;
+
+import org.hibernate.dialect.H2Dialect;
+
+/**
+ * H2Dialect, который пишет ORDER BY выражениями, а не номерами колонок выборки.
+ * На "order by b1_0.owner_id, 2 desc, 1 desc" H2 не узнает порядок индекса и сортирует всю выборку,
+ * на "order by b1_0.owner_id, b1_0.start_date desc, b1_0.id desc" читает индекс по порядку.
+ */
+public class ShareItH2Dialect extends H2Dialect {
+
+    @Override
+    public boolean supportsOrdinalSelectItemReference() {
+        return false;
+    }
+}
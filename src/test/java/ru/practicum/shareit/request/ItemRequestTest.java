@@ -0,0 +1,113 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoPost;
+import ru.practicum.shareit.request.dto.ItemRequestPageDto;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Запросы вещей: свои запросы с ответами одним запросом, лента чужих запросов по курсору.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemRequestTest {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long requestorId;
+    private Long ownerId;
+
+    @BeforeEach
+    void createUsers() {
+        requestorId = createUser();
+        ownerId = createUser();
+    }
+
+    @Test
+    void ownRequestsAreListedWithAnswersInOneStatement() {
+        Long first = createRequest(requestorId, "Нужна дрель");
+        Long second = createRequest(requestorId, "Нужна пила");
+        Long drillId = itemService.createItem(new ItemDtoPost("Дрель", "Дрель ударная", true, first), ownerId)
+                                  .getId();
+        itemService.createItem(new ItemDtoPost("Перфоратор", "Перфоратор с насадками", true, first), ownerId);
+        // проверка пользователя обслуживается кэшем, считается только сам список
+        userService.existsById(requestorId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemRequestDto> requests = itemRequestService.getOwnRequests(requestorId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(requests).extracting(ItemRequestDto::getId).containsExactly(second, first);
+        assertThat(requests.get(0).getItems()).isEmpty();
+        assertThat(requests.get(1).getItems())
+                .extracting(ItemAnswerDto::getName, ItemAnswerDto::getOwnerId)
+                .containsExactly(tuple("Дрель", ownerId), tuple("Перфоратор", ownerId));
+        assertThat(itemService.getItemDtoById(drillId).getRequestId()).isEqualTo(first);
+        assertThat(itemService.getAllItemsByOwner(ownerId))
+                .allSatisfy(item -> assertThat(item.getRequestId()).isEqualTo(first));
+    }
+
+    @Test
+    void feedIsPagedByCursorWithoutOwnRequests() {
+        List<Long> others = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            others.add(0, createRequest(ownerId, "Чужой запрос " + i));
+        }
+        Long own = createRequest(requestorId, "Свой запрос");
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ItemRequestPageDto page = itemRequestService.getOtherRequests(requestorId, cursor, 2);
+            assertThat(page.getRequests()).hasSizeLessThanOrEqualTo(2);
+            page.getRequests().forEach(request -> seen.add(request.getId()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        // в ленте есть и запросы других тестов — важны порядок и полнота запросов этого
+        assertThat(seen).doesNotHaveDuplicates().containsSubsequence(others).doesNotContain(own);
+    }
+
+    @Test
+    void itemForUnknownRequestIsRejected() {
+        assertThatThrownBy(() -> itemService.createItem(
+                new ItemDtoPost("Дрель", "Дрель ударная", true, Long.MAX_VALUE), ownerId))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private Long createRequest(Long userId, String description) {
+        return itemRequestService.createRequest(new ItemRequestDtoPost(description), userId).getId();
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.UUID;
+
+/**
+ * Пользователи для тестов: тестовые классы делят закэшированный контекст и базу, поэтому имя и email уникальны.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    // еще не сохраненный пользователь
+    public static User newUser() {
+        String name = UUID.randomUUID().toString();
+        return new User(null, name, name + "@mail.ru");
+    }
+}
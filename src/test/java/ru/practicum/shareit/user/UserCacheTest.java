@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверки существования пользователя обслуживает кэш, изменения через сервисы его не обходят.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void knownUserIsCheckedWithoutStatements() {
+        Long userId = createUser().getId();
+        userService.existsById(userId);
+
+        Statistics statistics = clearStatistics();
+        assertThat(userService.existsById(userId)).isTrue();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void unknownUserIsCheckedWithoutStatementsOnceCached() {
+        long userId = Long.MAX_VALUE - ThreadLocalRandom.current().nextInt(1_000_000);
+        assertThat(userService.existsById(userId)).isFalse();
+
+        Statistics statistics = clearStatistics();
+        assertThat(userService.existsById(userId)).isFalse();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void updatedUserIsReadFromCacheWithNewValues() {
+        Long userId = createUser().getId();
+        userService.getUserDtoById(userId);
+
+        userService.updateUser(userId, new UserDto(null, "Новое имя", null));
+
+        assertThat(userService.getUserDtoById(userId).getName()).isEqualTo("Новое имя");
+    }
+
+    @Test
+    void deletedUserItemsAreEvictedFromCache() {
+        User owner = userService.getUserById(createUser().getId()).orElseThrow();
+        Long itemId = itemRepository.save(new Item(null, "Дрель", "Дрель ударная", true, owner, null)).getId();
+        assertThat(itemService.getItemById(itemId)).isPresent();
+
+        userService.deleteUser(owner.getId());
+
+        assertThat(itemService.getItemById(itemId)).isEmpty();
+        assertThat(userService.existsById(owner.getId())).isFalse();
+    }
+
+    @Test
+    void cacheHitsAndMissesAreExported() {
+        Long userId = createUser().getId();
+        userService.existsById(userId);
+        userService.existsById(userId);
+        userService.existsById(-userId);
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                                .tags("region", "users", "result", "hit").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("cache.gets")
+                                .tags("cache", CacheConfig.UNKNOWN_USER_IDS, "result", "miss").meter()).isNotNull();
+    }
+
+    private UserDto createUser() {
+        return userService.createUser(TestUsers.newUser());
+    }
+
+    private Statistics clearStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDtoPost;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDtoPost;
+import ru.practicum.shareit.user.TestUsers;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Списки владельца: с Accept: application/x-ndjson — все строки по одной на строку ответа,
+ * с любым другим Accept — страница JSON-массивом; ошибки в обоих случаях — обычный ErrorResponse.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NdjsonListingTest {
+    private static final int BOOKINGS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    private Long ownerId;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        Long bookerId = createUser();
+        bookingIds = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Long itemId = itemService.createItem(new ItemDtoPost("Дрель " + i, "Дрель ударная", true, null), ownerId)
+                                     .getId();
+            bookingIds.add(bookingService.createBooking(
+                    new BookingDtoPost(itemId, start.plusDays(i), start.plusDays(i + 1)), bookerId).getId());
+        }
+    }
+
+    @Test
+    void ownerBookingsAreStreamedOnePerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                                                 .accept(MediaType.APPLICATION_NDJSON))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                                  .andReturn();
+
+        // позже начинающиеся — раньше, как и в постраничном списке
+        assertThat(lines(result)).extracting(line -> line.get("id").asLong())
+                                 .containsExactlyElementsOf(bookingIds.reversed());
+    }
+
+    @Test
+    void ownerItemsAreStreamedOnePerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/items").header("X-Sharer-User-Id", ownerId)
+                                                        .accept(MediaType.APPLICATION_NDJSON))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                                  .andReturn();
+
+        assertThat(lines(result)).hasSize(BOOKINGS)
+                                 .allSatisfy(line -> assertThat(line.get("name").asText()).startsWith("Дрель"));
+    }
+
+    @Test
+    void anyAcceptGetsJsonArray() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId)
+                                              .accept(MediaType.ALL))
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+               .andExpect(jsonPath("$.length()").value(BOOKINGS))
+               .andExpect(jsonPath("$[0].id").value(bookingIds.getLast()));
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", ownerId)
+                                     .accept(MediaType.ALL))
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+               .andExpect(jsonPath("$.length()").value(BOOKINGS));
+    }
+
+    @Test
+    void unknownOwnerIsNotFound() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", Long.MAX_VALUE)
+                                              .accept(MediaType.APPLICATION_NDJSON))
+               .andExpect(status().isNotFound())
+               .andExpect(jsonPath("$.error").exists());
+    }
+
+    private List<JsonNode> lines(MvcResult result) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private Long createUser() {
+        return userService.createUser(TestUsers.newUser()).getId();
+    }
+}